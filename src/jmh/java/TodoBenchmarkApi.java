@@ -0,0 +1,131 @@
+import benchmarks.TodoApi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * TodoBenchmarkApi connects the JMH benchmarks (package benchmarks) to the application
+ */
+public class TodoBenchmarkApi implements TodoApi {
+
+    @Override
+    public String categorize(String title) {
+        return AICategorizer.categorizeTask(title);
+    }
+
+    @Override
+    public Object analyze(String title) {
+        return AICategorizer.analyze(title);
+    }
+
+    @Override
+    public Object categorizer(String engine, List<String> trainingTitles) {
+        Categorizer keywords = AICategorizer.getKeywordEngine();
+        switch (engine) {
+            case "keyword":
+                return keywords;
+            case "bayes":
+                List<Task> tasks = new ArrayList<>(trainingTitles.size());
+                for (String title : trainingTitles) {
+                    tasks.add(new Task(title, keywords.analyze(title).getCategory()));
+                }
+                return BayesCategorizer.train(tasks);
+            default:
+                throw new IllegalArgumentException("Unknown categorizer: " + engine);
+        }
+    }
+
+    @Override
+    public Object analyzeWith(Object categorizer, String title) {
+        return ((Categorizer) categorizer).analyze(title);
+    }
+
+    @Override
+    public Object newTasks(List<String> titles) {
+        List<Task> tasks = new ArrayList<>(titles.size());
+        for (String title : titles) {
+            Task task = new Task(title, AICategorizer.categorizeTask(title));
+            task.setId(tasks.size() + 1);
+            if (tasks.size() % 3 == 0) {
+                task.markComplete();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void save(String format, Path file, Object tasks) throws IOException {
+        List<Task> list = (List<Task>) tasks;
+        switch (format) {
+            case "json":
+                JsonTaskStore.writeTasks(file.toFile(), list, false, false);
+                break;
+            case "json-compact":
+                JsonTaskStore.writeTasks(file.toFile(), list, true, false);
+                break;
+            case "binary":
+                BinaryTaskStore.writeTasks(file, list);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    @Override
+    public int load(String format, Path file) throws IOException {
+        if (format.equals("binary")) {
+            return BinaryTaskStore.readTasks(file).size();
+        }
+        return JsonTaskStore.readTasks(file.toFile()).size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object newManager(Object tasks) {
+        List<Task> list = (List<Task>) tasks;
+        return new TaskManager(new TaskStore() {
+            @Override
+            public List<Task> load() {
+                return new ArrayList<>(list);
+            }
+
+            @Override
+            public void commit(TaskMutation mutation, Collection<Task> tasks) {
+            }
+
+            @Override
+            public String getLocation() {
+                return "memory";
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @Override
+    public int search(Object manager, String query) {
+        return ((TaskManager) manager).findTasks(query).size();
+    }
+
+    @Override
+    public int filterPending(Object manager) {
+        return TaskSnapshot.filter(((TaskManager) manager).getTasks(), false, null).size();
+    }
+
+    @Override
+    public String toJson(Object manager) {
+        return WebServer.toJson(((TaskManager) manager).getTasks());
+    }
+
+    @Override
+    public byte[] gzip(byte[] body) {
+        return ResponseCache.Body.gzip(body);
+    }
+}
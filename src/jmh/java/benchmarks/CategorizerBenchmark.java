@@ -0,0 +1,93 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Categorization throughput over a corpus of realistic titles (titles per second)
+ *
+ * categorizeTask and analyze go through AICategorizer and mostly hit its title cache;
+ * keywordEngine and bayesEngine call the engines directly, so every title is scored;
+ * bayesEngineUnknownWords scores titles made only of words the model never saw.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategorizerBenchmark {
+    private static final int CORPUS_SIZE = 10_000;
+
+    private TodoApi api;
+    private String[] titles;
+    private String[] unknownTitles;
+    private Object keywordEngine;
+    private Object bayesEngine;
+
+    @Setup
+    public void setUp() {
+        api = TodoApi.load();
+        List<String> corpus = TitleCorpus.titles(CORPUS_SIZE, 42);
+        titles = corpus.toArray(new String[0]);
+        unknownTitles = new String[CORPUS_SIZE];
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            unknownTitles[i] = "Zorp qlax-" + i + " vindle";
+        }
+        keywordEngine = api.categorizer("keyword", null);
+        bayesEngine = api.categorizer("bayes", TitleCorpus.titles(2 * CORPUS_SIZE, 7));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void categorizeTask(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(api.categorize(title));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void analyze(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(api.analyze(title));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void keywordEngine(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(api.analyzeWith(keywordEngine, title));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void bayesEngine(Blackhole blackhole) {
+        for (String title : titles) {
+            blackhole.consume(api.analyzeWith(bayesEngine, title));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CORPUS_SIZE)
+    public void bayesEngineUnknownWords(Blackhole blackhole) {
+        for (String title : unknownTitles) {
+            blackhole.consume(api.analyzeWith(bayesEngine, title));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full load and save latency of each store format at 1k, 100k and 1M tasks
+ * (the JSON and binary stores rewrite the whole file on every mutation)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersistenceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"json", "json-compact", "binary"})
+    public String format;
+
+    private TodoApi api;
+    private Object tasks;
+    private Path directory;
+    private Path loadFile;
+    private Path saveFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        api = TodoApi.load();
+        tasks = api.newTasks(TitleCorpus.titles(taskCount, 7));
+        directory = Files.createTempDirectory("todo-bench");
+        loadFile = directory.resolve("load-" + format);
+        saveFile = directory.resolve("save-" + format);
+        api.save(format, loadFile, tasks);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(loadFile);
+        Files.deleteIfExists(saveFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int load() throws IOException {
+        return api.load(format, loadFile);
+    }
+
+    @Benchmark
+    public Path save() throws IOException {
+        api.save(format, saveFile, tasks);
+        return saveFile;
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the read paths behind GET /api/tasks: search, status filter,
+ * JSON serialization and gzip of the serialized body
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class QueryBenchmark {
+
+    @Param({"1000", "100000"})
+    public int taskCount;
+
+    private TodoApi api;
+    private Object manager;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        api = TodoApi.load();
+        manager = api.newManager(api.newTasks(TitleCorpus.titles(taskCount, 11)));
+        body = api.toJson(manager).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int searchShort() {
+        return api.search(manager, "bug");
+    }
+
+    @Benchmark
+    public int searchLong() {
+        return api.search(manager, "deployment checklist by friday");
+    }
+
+    @Benchmark
+    public int filterPending() {
+        return api.filterPending(manager);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return api.toJson(manager);
+    }
+
+    @Benchmark
+    public byte[] gzip() {
+        return api.gzip(body);
+    }
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * TitleCorpus generates reproducible task titles that look like the ones people type:
+ * a verb, an object and an optional detail, with a mix of work, personal, urgent
+ * and uncategorized vocabulary
+ */
+final class TitleCorpus {
+    private static final String[] VERBS = {
+        "Finish", "Review", "Call", "Buy", "Schedule", "Prepare", "Send", "Fix", "Book", "Plan",
+        "Update", "Clean", "Pay", "Write", "Pick up", "Organize", "Check", "Submit", "Cancel", "Email"
+    };
+    private static final String[] OBJECTS = {
+        "quarterly report", "project proposal", "client presentation", "team meeting notes",
+        "groceries", "birthday gift for mom", "doctor appointment", "gym membership",
+        "production bug", "server outage postmortem", "tax documents", "electricity bill",
+        "flight tickets", "family dinner", "code review", "budget spreadsheet", "kitchen",
+        "car service", "invoice for the vendor", "vacation photos", "dentist visit", "resume",
+        "homework with the kids", "deployment checklist", "insurance claim", "library books"
+    };
+    private static final String[] DETAILS = {
+        "", "", "", "today", "asap", "before the deadline", "this weekend", "for Monday",
+        "tomorrow morning", "urgent", "with the manager", "at home", "after work", "by Friday",
+        "critical", "when possible", "for the office", "with friends"
+    };
+
+    private TitleCorpus() {
+    }
+
+    /**
+     * @param count Number of titles
+     * @param seed Random seed; the same seed always gives the same titles
+     * @return The titles
+     */
+    static List<String> titles(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> titles = new ArrayList<>(count);
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < count; i++) {
+            sb.setLength(0);
+            sb.append(VERBS[random.nextInt(VERBS.length)]).append(' ')
+                .append(OBJECTS[random.nextInt(OBJECTS.length)]);
+            String detail = DETAILS[random.nextInt(DETAILS.length)];
+            if (!detail.isEmpty()) {
+                sb.append(' ').append(detail);
+            }
+            titles.add(sb.toString());
+        }
+        return titles;
+    }
+}
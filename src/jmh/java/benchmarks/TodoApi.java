@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * TodoApi is the surface the benchmarks measure
+ *
+ * JMH refuses benchmark classes in the default package, and classes in a named package
+ * cannot refer to the application's default-package classes, so the benchmarks call the
+ * application through this interface. TodoBenchmarkApi (default package) implements it;
+ * tasks and managers are passed around as opaque handles.
+ */
+public interface TodoApi {
+
+    /**
+     * Loads the default-package implementation
+     */
+    static TodoApi load() {
+        try {
+            return (TodoApi) Class.forName("TodoBenchmarkApi").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("TodoBenchmarkApi is missing from the benchmark classpath", e);
+        }
+    }
+
+    /** AICategorizer.categorizeTask */
+    String categorize(String title);
+
+    /** AICategorizer.analyze (category, confidence and suggestion in one scan) */
+    Object analyze(String title);
+
+    /**
+     * Creates a categorization engine; "bayes" is trained on the given titles labelled by
+     * the keyword engine, the way it would learn from a tasks.json the keyword engine filled
+     *
+     * @param engine "keyword" or "bayes"
+     * @return A handle to the engine
+     */
+    Object categorizer(String engine, List<String> trainingTitles);
+
+    /** Categorizer.analyze on an engine handle, bypassing the categorization cache */
+    Object analyzeWith(Object categorizer, String title);
+
+    /**
+     * Builds tasks with IDs 1..n from the given titles; every third task is completed
+     *
+     * @return A handle to the task list
+     */
+    Object newTasks(List<String> titles);
+
+    /**
+     * Writes a whole task list the way the store for a format does after a mutation
+     *
+     * @param format "json", "json-compact" or "binary"
+     */
+    void save(String format, Path file, Object tasks) throws IOException;
+
+    /**
+     * Loads a task file the way the store for a format does at startup
+     *
+     * @return Number of tasks loaded
+     */
+    int load(String format, Path file) throws IOException;
+
+    /**
+     * Creates a TaskManager over the given tasks with a store that persists nothing
+     *
+     * @return A handle to the manager
+     */
+    Object newManager(Object tasks);
+
+    /** TaskManager.findTasks; returns the number of matches */
+    int search(Object manager, String query);
+
+    /** The status filter behind GET /api/tasks?status=pending; returns the number of tasks */
+    int filterPending(Object manager);
+
+    /** The body of GET /api/tasks */
+    String toJson(Object manager);
+
+    /** Gzip compression of a response body */
+    byte[] gzip(byte[] body);
+}
@@ -1,9 +1,14 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
- * AICategorizer provides rule-based task categorization using keyword matching
- * This simulates AI categorization without requiring external APIs
+ * AICategorizer categorizes task titles with the active Categorizer engine
+ * The default engine is keyword matching (KeywordCategorizer); -Dtodo.categorizer=bayes
+ * switches to a naive Bayes model trained from the stored tasks (BayesCategorizer).
+ * Both run locally without external APIs.
  */
 public class AICategorizer {
     
@@ -45,43 +50,30 @@ public class AICategorizer {
         "escalation", "last date", "last day", "final", "final call"
     );
     
+    // Default engine: the keyword lists above (or a KeywordDictionary file), compiled into a single automaton
+    private static final KeywordCategorizer KEYWORDS =
+        new KeywordCategorizer(URGENT_KEYWORDS, WORK_KEYWORDS, PERSONAL_KEYWORDS);
+    
+    // Results by normalized title; -Dtodo.categorizer.cache sets the capacity (0 disables it)
+    private static final CategorizationCache CACHE =
+        new CategorizationCache(Integer.getInteger("todo.categorizer.cache", 10_000));
+    
+    private static volatile Categorizer engine = KEYWORDS;
+    private static KeywordDictionary keywordDictionary;
+    
     /**
-     * Categorizes a task based on its title using keyword matching
-     * Priority: Urgent > Work > Personal > General
+     * Categorizes a task based on its title
+     * With the keyword engine the priority is Urgent > Work > Personal > General
      * 
-     * @param taskTitle The title of the task to categorize
-     * @return The category ("Urgent", "Work", "Personal", or "General")
+     * @param taskTitle The title of the task
+     * @return The category name
      */
     public static String categorizeTask(String taskTitle) {
         if (taskTitle == null || taskTitle.trim().isEmpty()) {
             return "General";
         }
         
-        String lowerTitle = taskTitle.toLowerCase();
-        
-        // Check for urgent keywords first (highest priority)
-        for (String keyword : URGENT_KEYWORDS) {
-            if (lowerTitle.contains(keyword)) {
-                return "Urgent";
-            }
-        }
-        
-        // Check for work keywords
-        for (String keyword : WORK_KEYWORDS) {
-            if (lowerTitle.contains(keyword)) {
-                return "Work";
-            }
-        }
-        
-        // Check for personal keywords
-        for (String keyword : PERSONAL_KEYWORDS) {
-            if (lowerTitle.contains(keyword)) {
-                return "Personal";
-            }
-        }
-        
-        // Default category if no keywords match
-        return "General";
+        return analyze(taskTitle).getCategory();
     }
     
     /**
@@ -97,41 +89,11 @@ public class AICategorizer {
             return 0.1;
         }
         
-        String lowerTitle = taskTitle.toLowerCase();
-        int matchCount = 0;
-        List<String> relevantKeywords;
-        
-        switch (category.toLowerCase()) {
-            case "urgent":
-                relevantKeywords = URGENT_KEYWORDS;
-                break;
-            case "work":
-                relevantKeywords = WORK_KEYWORDS;
-                break;
-            case "personal":
-                relevantKeywords = PERSONAL_KEYWORDS;
-                break;
-            default:
-                return 0.3; // Low confidence for general category
-        }
-        
-        // Count matching keywords
-        for (String keyword : relevantKeywords) {
-            if (lowerTitle.contains(keyword)) {
-                matchCount++;
-            }
-        }
-        
-        // Calculate confidence based on matches
-        if (matchCount == 0) {
-            return 0.3;
-        } else if (matchCount == 1) {
-            return 0.7;
-        } else if (matchCount == 2) {
-            return 0.85;
-        } else {
-            return 0.95;
+        Categorization cached = analyze(taskTitle);
+        if (cached.getCategory().equalsIgnoreCase(category)) {
+            return cached.getConfidence();
         }
+        return engine.getConfidenceScore(taskTitle, category);
     }
     
     /**
@@ -141,9 +103,38 @@ public class AICategorizer {
      * @return Suggestion string
      */
     public static String getSuggestion(String taskTitle) {
-        String category = categorizeTask(taskTitle);
-        double confidence = getConfidenceScore(taskTitle, category);
+        return analyze(taskTitle).getSuggestion();
+    }
+    
+    /**
+     * Computes category, confidence and suggestion from a single scan of the title,
+     * or returns the cached result for a title seen before
+     * 
+     * @param taskTitle The title of the task
+     * @return The categorization result
+     */
+    public static Categorization analyze(String taskTitle) {
+        if (taskTitle == null || taskTitle.trim().isEmpty()) {
+            return new Categorization("General", 0.1, suggestionFor(0.1));
+        }
         
+        return CACHE.get(taskTitle, AICategorizer::analyzeUncached);
+    }
+    
+    /**
+     * Computes category, confidence and suggestion without consulting the cache
+     * 
+     * @param taskTitle A non-blank task title
+     * @return The categorization result
+     */
+    static Categorization analyzeUncached(String taskTitle) {
+        return engine.analyze(taskTitle);
+    }
+    
+    /**
+     * Maps a confidence score to a user-facing suggestion
+     */
+    static String suggestionFor(double confidence) {
         if (confidence < 0.5) {
             return "💡 Tip: Add keywords like 'urgent', 'work', or 'personal' to improve auto-categorization!";
         } else if (confidence < 0.8) {
@@ -153,6 +144,69 @@ public class AICategorizer {
         }
     }
     
+    /**
+     * Gets the engine that categorizes new titles
+     * 
+     * @return The active engine
+     */
+    public static Categorizer getEngine() {
+        return engine;
+    }
+    
+    /**
+     * Replaces the categorization engine and drops results cached from the previous one
+     * 
+     * @param categorizer The new engine
+     */
+    public static void setEngine(Categorizer categorizer) {
+        engine = Objects.requireNonNull(categorizer);
+        CACHE.invalidate();
+    }
+    
+    /**
+     * Gets the built-in keyword engine
+     * 
+     * @return The keyword engine
+     */
+    public static KeywordCategorizer getKeywordEngine() {
+        return KEYWORDS;
+    }
+    
+    /**
+     * Replaces the built-in keyword lists with the ones in a JSON file and reloads them
+     * whenever the file changes
+     * 
+     * @param file The keyword dictionary file
+     * @return The dictionary
+     * @throws IOException If the file's directory cannot be watched
+     */
+    public static synchronized KeywordDictionary watchKeywords(Path file) throws IOException {
+        if (keywordDictionary == null) {
+            KeywordDictionary dictionary = new KeywordDictionary(file, KEYWORDS, CACHE::invalidate);
+            dictionary.start();
+            keywordDictionary = dictionary;
+        }
+        return keywordDictionary;
+    }
+    
+    /**
+     * Gets the watched keyword dictionary file
+     * 
+     * @return The dictionary, or null when the built-in keyword lists are in use
+     */
+    public static synchronized KeywordDictionary getKeywordDictionary() {
+        return keywordDictionary;
+    }
+    
+    /**
+     * Gets the categorization cache (for its counters)
+     * 
+     * @return The cache
+     */
+    public static CategorizationCache getCache() {
+        return CACHE;
+    }
+    
     /**
      * Gets all available categories
      * 
@@ -0,0 +1,307 @@
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * BayesCategorizer is a multinomial naive Bayes model trained from already categorized tasks
+ *
+ * Features are the lowercased words of a title plus each pair of adjacent words, hashed into
+ * a fixed number of buckets. The whole model is one float[] of log probabilities indexed by
+ * bucket * CLASSES + category ordinal. No vocabulary map is needed, and one feature's weights
+ * for every category share a cache line. Scoring reads the title's characters once and hashes
+ * the words as it goes, so it allocates nothing per word. Words never seen in training score
+ * zero for every category, so they do not sway the result; a title with no known feature at
+ * all is General with confidence 0, as the priors alone say nothing about it.
+ *
+ * Training and scoring are local. Main trains the model from the stored tasks at startup when
+ * -Dtodo.categorizer=bayes is set.
+ */
+public class BayesCategorizer implements Categorizer {
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int CLASSES = CATEGORIES.length;
+    public static final int DEFAULT_BUCKET_BITS = 16;
+    private static final float SMOOTHING = 1.0f; // Laplace
+    private static final float NEGLIGIBLE = 21f; // exp(-21) < 1e-9
+
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final boolean[] ASCII_WORD = new boolean[128];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            ASCII_WORD[c] = Character.isLetterOrDigit(c);
+        }
+    }
+
+    private final int mask;
+    private final float[] weights; // log P(feature | category), [bucket * CLASSES + category]
+    private final long[] seenBuckets; // bit set of the buckets some training feature fell into
+    private final float[] priors; // log P(category); -Infinity for categories absent from training
+    private final int trainingSize;
+
+    private BayesCategorizer(int mask, float[] weights, long[] seenBuckets, float[] priors, int trainingSize) {
+        this.mask = mask;
+        this.weights = weights;
+        this.seenBuckets = seenBuckets;
+        this.priors = priors;
+        this.trainingSize = trainingSize;
+    }
+
+    /**
+     * Trains a model with 2^16 feature buckets
+     *
+     * @param tasks Tasks whose categories are the training labels
+     * @return The model
+     * @throws IllegalArgumentException If the tasks cover fewer than two categories
+     */
+    public static BayesCategorizer train(Collection<Task> tasks) {
+        return train(tasks, DEFAULT_BUCKET_BITS);
+    }
+
+    /**
+     * Trains a model
+     *
+     * @param tasks Tasks whose categories are the training labels (unknown names count as General)
+     * @param bucketBits Number of feature buckets as a power of two (8 to 24)
+     * @return The model
+     * @throws IllegalArgumentException If the tasks cover fewer than two categories
+     */
+    public static BayesCategorizer train(Collection<Task> tasks, int bucketBits) {
+        if (bucketBits < 8 || bucketBits > 24) {
+            throw new IllegalArgumentException("Bucket bits must be between 8 and 24: " + bucketBits);
+        }
+        int buckets = 1 << bucketBits;
+        int mask = buckets - 1;
+        int[] counts = new int[buckets * CLASSES];
+        long[] featureTotals = new long[CLASSES];
+        int[] documents = new int[CLASSES];
+        int trainingSize = 0;
+
+        for (Task task : tasks) {
+            if (task.getTitle() == null) {
+                continue;
+            }
+            int category = Category.fromName(task.getCategory()).ordinal();
+            documents[category]++;
+            trainingSize++;
+            forEachFeature(task.getTitle(), mask, bucket -> {
+                counts[bucket * CLASSES + category]++;
+                featureTotals[category]++;
+            });
+        }
+
+        int represented = 0;
+        for (int count : documents) {
+            represented += count > 0 ? 1 : 0;
+        }
+        if (represented < 2) {
+            throw new IllegalArgumentException("Need tasks in at least two categories to train, found "
+                + represented + " in " + trainingSize + " tasks");
+        }
+
+        int vocabulary = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (seen(counts, bucket)) {
+                vocabulary++;
+            }
+        }
+
+        float[] priors = new float[CLASSES];
+        double[] denominators = new double[CLASSES];
+        for (int c = 0; c < CLASSES; c++) {
+            priors[c] = documents[c] == 0
+                ? Float.NEGATIVE_INFINITY
+                : (float) Math.log((documents[c] + SMOOTHING) / (trainingSize + SMOOTHING * CLASSES));
+            denominators[c] = featureTotals[c] + SMOOTHING * vocabulary;
+        }
+
+        // Unseen buckets keep weight 0 for every category
+        float[] weights = new float[buckets * CLASSES];
+        long[] seenBuckets = new long[(buckets + 63) >>> 6];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (!seen(counts, bucket)) {
+                continue;
+            }
+            seenBuckets[bucket >>> 6] |= 1L << bucket;
+            for (int c = 0; c < CLASSES; c++) {
+                int slot = bucket * CLASSES + c;
+                weights[slot] = (float) Math.log((counts[slot] + SMOOTHING) / denominators[c]);
+            }
+        }
+        return new BayesCategorizer(mask, weights, seenBuckets, priors, trainingSize);
+    }
+
+    private static boolean seen(int[] counts, int bucket) {
+        for (int c = 0; c < CLASSES; c++) {
+            if (counts[bucket * CLASSES + c] != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Feeds the hashed features of a title to a sink: every word (a run of letters or digits,
+     * lowercased) and every pair of adjacent words; used for training, score() inlines it
+     *
+     * @param title The title
+     * @param mask Bucket count minus one
+     * @param sink Receives one bucket per feature
+     */
+    static void forEachFeature(String title, int mask, IntConsumer sink) {
+        int hash = FNV_OFFSET;
+        int previous = 0;
+        boolean inWord = false;
+        boolean hasPrevious = false;
+        for (int i = 0, n = title.length(); i <= n; i++) {
+            char c = i < n ? title.charAt(i) : ' ';
+            if (isWordChar(c)) {
+                hash = (hash ^ lowerCase(c)) * FNV_PRIME;
+                inWord = true;
+            } else if (inWord) {
+                sink.accept(mix(hash) & mask);
+                if (hasPrevious) {
+                    sink.accept(mix(previous * 0x9e3779b1 + hash) & mask);
+                }
+                previous = hash;
+                hasPrevious = true;
+                hash = FNV_OFFSET;
+                inWord = false;
+            }
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return c < 128 ? ASCII_WORD[c] : Character.isLetterOrDigit(c);
+    }
+
+    private static char lowerCase(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * Murmur3 finalizer: spreads the FNV hash over the low bits used as the bucket
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Log score of every category: the prior plus the weights of every feature of the title
+     * Walks the title the same way as forEachFeature, adding weights in place of a callback
+     *
+     * @return The scores, or null if no feature of the title was seen in training
+     */
+    private float[] score(String taskTitle) {
+        float[] scores = priors.clone();
+        int hash = FNV_OFFSET;
+        int previous = 0;
+        boolean inWord = false;
+        boolean hasPrevious = false;
+        boolean known = false;
+        for (int i = 0, n = taskTitle.length(); i <= n; i++) {
+            char c = i < n ? taskTitle.charAt(i) : ' ';
+            if (isWordChar(c)) {
+                hash = (hash ^ lowerCase(c)) * FNV_PRIME;
+                inWord = true;
+            } else if (inWord) {
+                known |= addWeights(scores, mix(hash) & mask);
+                if (hasPrevious) {
+                    known |= addWeights(scores, mix(previous * 0x9e3779b1 + hash) & mask);
+                }
+                previous = hash;
+                hasPrevious = true;
+                hash = FNV_OFFSET;
+                inWord = false;
+            }
+        }
+        return known ? scores : null;
+    }
+
+    // Returns whether the bucket was seen in training; unseen buckets add nothing
+    private boolean addWeights(float[] scores, int bucket) {
+        if ((seenBuckets[bucket >>> 6] & (1L << bucket)) == 0) {
+            return false;
+        }
+        int base = bucket * CLASSES;
+        for (int c = 0; c < CLASSES; c++) {
+            scores[c] += weights[base + c];
+        }
+        return true;
+    }
+
+    /**
+     * Posterior probability of one category, from log scores
+     * Categories more than NEGLIGIBLE below it add under 1e-9 and skip the exp call
+     */
+    private static double probability(float[] scores, int category) {
+        if (scores[category] == Float.NEGATIVE_INFINITY) {
+            return 0.0;
+        }
+        double sum = 0;
+        for (float score : scores) {
+            float difference = score - scores[category];
+            if (difference > -NEGLIGIBLE) {
+                sum += Math.exp(difference);
+            }
+        }
+        return 1.0 / sum;
+    }
+
+    @Override
+    public String getName() {
+        return "bayes";
+    }
+
+    @Override
+    public Categorization analyze(String taskTitle) {
+        float[] scores = score(taskTitle);
+        if (scores == null) {
+            return new Categorization(Category.GENERAL.getDisplayName(), 0.0, AICategorizer.suggestionFor(0.0));
+        }
+        int best = 0;
+        for (int c = 1; c < CLASSES; c++) {
+            if (scores[c] > scores[best]) {
+                best = c;
+            }
+        }
+        double confidence = probability(scores, best);
+        return new Categorization(CATEGORIES[best].getDisplayName(), confidence, AICategorizer.suggestionFor(confidence));
+    }
+
+    @Override
+    public double getConfidenceScore(String taskTitle, String category) {
+        Category known = Category.lookup(category);
+        if (known == null) {
+            return 0.0;
+        }
+        float[] scores = score(taskTitle);
+        return scores == null ? 0.0 : probability(scores, known.ordinal());
+    }
+
+    /**
+     * Gets the number of tasks the model was trained on
+     */
+    public int getTrainingSize() {
+        return trainingSize;
+    }
+
+    /**
+     * Gets the number of feature buckets
+     */
+    public int getBucketCount() {
+        return mask + 1;
+    }
+
+    @Override
+    public String toString() {
+        return "naive Bayes over " + getBucketCount() + " feature buckets, trained on " + trainingSize + " tasks";
+    }
+}
@@ -0,0 +1,306 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * BinaryTaskStore keeps tasks in a compact binary file that is read through a memory map
+ *
+ * Layout (big-endian):
+ *   header:  magic "TSKB" (4 bytes), format version (u16), reserved (u16), record count (i64)
+ *   record:  id (i64), createdAt (i64 epoch millis, -1 if unknown), completedAt (i64, -1 if none),
+ *            category ordinal (u8), flags (u8, bit 0 = completed), title length (i32), title (UTF-8)
+ *
+ * Like JsonTaskStore the whole file is rewritten on every mutation, but into a temp file
+ * that is then renamed over the old one, so readers of the old mapping are never disturbed.
+ */
+public class BinaryTaskStore implements TaskStore {
+    static final int MAGIC = 0x54534B42; // "TSKB"
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_FIXED_BYTES = 8 + 8 + 8 + 1 + 1 + 4;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final File legacyJsonFile;
+
+    /**
+     * @param fileName The binary store file
+     * @param legacyJsonFileName JSON file to import from when the binary file does not exist yet
+     */
+    public BinaryTaskStore(String fileName, String legacyJsonFileName) {
+        this.file = new File(fileName).toPath();
+        this.legacyJsonFile = new File(legacyJsonFileName);
+    }
+
+    @Override
+    public List<Task> load() throws IOException {
+        if (!Files.exists(file)) {
+            if (legacyJsonFile.exists()) {
+                List<Task> tasks = JsonTaskStore.readTasks(legacyJsonFile);
+                writeTasks(file, tasks);
+                System.out.println("📦 Imported " + tasks.size() + " tasks from " + legacyJsonFile.getName()
+                    + " into " + file.getFileName());
+                return tasks;
+            }
+            System.out.println("📁 Creating new tasks file: " + file.getFileName());
+            return new ArrayList<>();
+        }
+        return readTasks(file);
+    }
+
+    @Override
+    public TaskColumns loadColumns() throws IOException {
+        if (!Files.exists(file)) {
+            return null; // load() creates the file or imports the legacy JSON file
+        }
+        try (RecordCursor cursor = RecordCursor.open(file)) {
+            return TaskColumns.read(cursor);
+        }
+    }
+
+    @Override
+    public void commit(TaskMutation mutation, Collection<Task> tasks) throws IOException {
+        writeTasks(file, tasks);
+    }
+
+    @Override
+    public String getLocation() {
+        return file.getFileName().toString();
+    }
+
+    @Override
+    public void close() {
+        // Every commit is already written through
+    }
+
+    /**
+     * Converts a JSON task file into a binary store file
+     *
+     * @param jsonFile The tasks.json file to read
+     * @param binaryFile The binary file to (over)write
+     * @return Number of tasks converted
+     */
+    public static int importJson(File jsonFile, File binaryFile) throws IOException {
+        List<Task> tasks = JsonTaskStore.readTasks(jsonFile);
+        writeTasks(binaryFile.toPath(), tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Converts a binary store file into the tasks.json format
+     *
+     * @param binaryFile The binary file to read
+     * @param jsonFile The JSON file to (over)write
+     * @return Number of tasks converted
+     */
+    public static int exportJson(File binaryFile, File jsonFile) throws IOException {
+        List<Task> tasks = readTasks(binaryFile.toPath());
+        JsonTaskStore.writeTasks(jsonFile, tasks, false, false);
+        return tasks.size();
+    }
+
+    /**
+     * Reads every record into Task objects
+     */
+    static List<Task> readTasks(Path file) throws IOException {
+        try (RecordCursor cursor = RecordCursor.open(file)) {
+            List<Task> tasks = new ArrayList<>((int) Math.min(cursor.getRecordCount(), Integer.MAX_VALUE));
+            while (cursor.next()) {
+                tasks.add(cursor.toTask());
+            }
+            return tasks;
+        }
+    }
+
+    /**
+     * Writes all tasks to a temp file and atomically renames it over the target
+     */
+    static void writeTasks(Path target, Collection<Task> tasks) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            buffer.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) 0).putLong(tasks.size());
+            for (Task task : tasks) {
+                byte[] title = (task.getTitle() == null ? "" : task.getTitle()).getBytes(StandardCharsets.UTF_8);
+                if (buffer.remaining() < RECORD_FIXED_BYTES + title.length) {
+                    drain(channel, buffer);
+                    if (buffer.capacity() < RECORD_FIXED_BYTES + title.length) {
+                        buffer = ByteBuffer.allocate(RECORD_FIXED_BYTES + title.length);
+                    }
+                }
+                buffer.putLong(task.getId())
+                    .putLong(task.getCreatedAtMillis())
+                    .putLong(task.getCompletedAtMillis())
+                    .put((byte) Category.fromName(task.getCategory()).ordinal())
+                    .put((byte) (task.isCompleted() ? 1 : 0))
+                    .putInt(title.length)
+                    .put(title);
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * RecordCursor walks the records of a mapped store file without decoding titles
+     * until asked, so indexes over IDs, categories, flags and timestamps can be built
+     * without creating a String per task; TaskColumns.read loads a file through it
+     */
+    public static final class RecordCursor implements AutoCloseable {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long recordCount;
+        private long recordsRead;
+        private int recordStart = -1;
+        private int titleStart;
+        private int titleLength;
+
+        private RecordCursor(FileChannel channel, MappedByteBuffer buffer, long recordCount) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.recordCount = recordCount;
+        }
+
+        /**
+         * Maps a store file and validates its header
+         *
+         * @param file The binary store file (at most 2 GiB)
+         * @return A cursor positioned before the first record
+         */
+        public static RecordCursor open(Path file) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                if (size < HEADER_BYTES) {
+                    throw new IOException("Not a task store file: " + file);
+                }
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Task store file too large to map: " + file);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (buffer.getInt(0) != MAGIC) {
+                    throw new IOException("Not a task store file: " + file);
+                }
+                short version = buffer.getShort(4);
+                if (version != FORMAT_VERSION) {
+                    throw new IOException("Unsupported task store version " + version + " in " + file);
+                }
+                long count = buffer.getLong(8);
+                buffer.position(HEADER_BYTES);
+                return new RecordCursor(channel, buffer, count);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        /**
+         * Advances to the next record
+         *
+         * @return false when all records have been read
+         */
+        public boolean next() throws IOException {
+            if (recordsRead >= recordCount) {
+                return false;
+            }
+            int start = buffer.position();
+            if (buffer.remaining() < RECORD_FIXED_BYTES) {
+                throw new IOException("Truncated task store record " + recordsRead);
+            }
+            int length = buffer.getInt(start + RECORD_FIXED_BYTES - 4);
+            if (length < 0 || buffer.remaining() < RECORD_FIXED_BYTES + length) {
+                throw new IOException("Truncated task store record " + recordsRead);
+            }
+            recordStart = start;
+            titleStart = start + RECORD_FIXED_BYTES;
+            titleLength = length;
+            buffer.position(titleStart + length);
+            recordsRead++;
+            return true;
+        }
+
+        public long getId() {
+            return buffer.getLong(recordStart);
+        }
+
+        public long getCreatedAtMillis() {
+            return buffer.getLong(recordStart + 8);
+        }
+
+        public long getCompletedAtMillis() {
+            return buffer.getLong(recordStart + 16);
+        }
+
+        public Category getCategory() {
+            return Category.fromOrdinal(buffer.get(recordStart + 24));
+        }
+
+        public boolean isCompleted() {
+            return (buffer.get(recordStart + 25) & 1) != 0;
+        }
+
+        public int getTitleLength() {
+            return titleLength;
+        }
+
+        /**
+         * Gets the UTF-8 title bytes of the current record without decoding them
+         *
+         * @return A read-only buffer over the mapped file, valid until the cursor is closed
+         */
+        public ByteBuffer getTitleBytes() {
+            return buffer.slice(titleStart, titleLength);
+        }
+
+        /**
+         * Decodes the title of the current record
+         */
+        public String getTitle() {
+            return StandardCharsets.UTF_8.decode(getTitleBytes()).toString();
+        }
+
+        /**
+         * Materializes the current record as a Task
+         */
+        public Task toTask() {
+            Task task = new Task();
+            task.setId(getId());
+            task.setTitle(getTitle());
+            task.setCategory(getCategory().getDisplayName());
+            task.setCompleted(isCompleted());
+            task.setCreatedAtMillis(getCreatedAtMillis());
+            task.setCompletedAtMillis(getCompletedAtMillis());
+            return task;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Categorization holds the category, confidence and suggestion computed for a task title
+ */
+public class Categorization {
+    private final String category;
+    private final double confidence;
+    private final String suggestion;
+
+    public Categorization(String category, double confidence, String suggestion) {
+        this.category = category;
+        this.confidence = confidence;
+        this.suggestion = suggestion;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public String getSuggestion() {
+        return suggestion;
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * CategorizationCache remembers categorization results by normalized title
+ *
+ * Eviction is segmented LRU, which resists scans: a new title enters a small probation
+ * segment and only moves to the protected segment (80% of the capacity) when it is seen
+ * again, so a bulk import of one-off titles cycles through probation without pushing out
+ * recurring titles like "standup" or "pay electricity bill".
+ *
+ * The cache is split into independently locked stripes so parallel categorization does
+ * not contend on one lock. invalidate() empties it and makes sure that results computed
+ * with an older keyword dictionary are never stored afterwards.
+ */
+public class CategorizationCache {
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile long generation;
+
+    /**
+     * @param capacity Maximum number of titles kept; 0 disables caching
+     */
+    public CategorizationCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        int stripeCount = this.capacity < STRIPES * 8 ? 1 : STRIPES;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            int stripeCapacity = this.capacity / stripeCount + (i < this.capacity % stripeCount ? 1 : 0);
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * Gets the cached result for a title, computing and caching it on a miss
+     *
+     * @param title The task title (normalized here)
+     * @param compute Categorizes a title; called outside any lock, possibly more than once for a title
+     * @return The categorization
+     */
+    public Categorization get(String title, Function<String, Categorization> compute) {
+        if (capacity == 0) {
+            misses.increment();
+            return compute.apply(title);
+        }
+        String key = normalize(title);
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+        Categorization cached = stripe.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long expectedGeneration = generation;
+        Categorization result = compute.apply(title);
+        stripe.put(key, result, expectedGeneration);
+        return result;
+    }
+
+    /**
+     * Drops every entry; call after the new keyword dictionary is in use
+     */
+    public synchronized void invalidate() {
+        generation++;
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Normalizes a title the way KeywordMatcher reads it: surrounding whitespace and
+     * letter case never change the result, so they do not make a new cache entry
+     *
+     * @param title The title
+     * @return The cache key
+     */
+    static String normalize(String title) {
+        String trimmed = title.trim();
+        char[] chars = trimmed.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of cached titles
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Appends the cache counters in Prometheus text format
+     *
+     * @param sb The output
+     */
+    public void writePrometheus(StringBuilder sb) {
+        sb.append("# HELP todo_categorizer_cache_requests_total Categorization cache lookups by result\n");
+        sb.append("# TYPE todo_categorizer_cache_requests_total counter\n");
+        sb.append("todo_categorizer_cache_requests_total{result=\"hit\"} ").append(getHitCount()).append('\n');
+        sb.append("todo_categorizer_cache_requests_total{result=\"miss\"} ").append(getMissCount()).append('\n');
+        sb.append("# HELP todo_categorizer_cache_evictions_total Titles evicted from the categorization cache\n");
+        sb.append("# TYPE todo_categorizer_cache_evictions_total counter\n");
+        sb.append("todo_categorizer_cache_evictions_total ").append(getEvictionCount()).append('\n');
+        sb.append("# HELP todo_categorizer_cache_entries Titles in the categorization cache\n");
+        sb.append("# TYPE todo_categorizer_cache_entries gauge\n");
+        sb.append("todo_categorizer_cache_entries ").append(size()).append('\n');
+    }
+
+    @Override
+    public String toString() {
+        long lookups = getHitCount() + getMissCount();
+        return String.format("%d/%d titles, %d hits, %d misses (%.1f%% hit rate), %d evictions",
+            size(), capacity, getHitCount(), getMissCount(),
+            lookups == 0 ? 0.0 : getHitCount() * 100.0 / lookups, getEvictionCount());
+    }
+
+    /**
+     * One lock's share of the cache: a probation and a protected LRU segment
+     */
+    private final class Stripe {
+        private final int capacity;
+        private final int protectedCapacity;
+        // Access-ordered: iteration starts at the least recently used entry
+        private final LinkedHashMap<String, Categorization> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<String, Categorization> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = capacity * 4 / 5;
+        }
+
+        synchronized Categorization get(String key) {
+            Categorization value = protectedSegment.get(key);
+            if (value != null) {
+                return value;
+            }
+            value = probation.remove(key);
+            if (value == null) {
+                return null;
+            }
+            // Second hit: promote, demoting the protected segment's LRU entry back to probation
+            protectedSegment.put(key, value);
+            if (protectedSegment.size() > protectedCapacity) {
+                Map.Entry<String, Categorization> demoted = removeEldest(protectedSegment);
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+            return value;
+        }
+
+        synchronized void put(String key, Categorization value, long expectedGeneration) {
+            if (expectedGeneration != generation || capacity == 0
+                    || protectedSegment.containsKey(key) || probation.containsKey(key)) {
+                return;
+            }
+            probation.put(key, value);
+            while (probation.size() + protectedSegment.size() > capacity) {
+                removeEldest(probation.isEmpty() ? protectedSegment : probation);
+                evictions.increment();
+            }
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protectedSegment.clear();
+        }
+
+        synchronized int size() {
+            return probation.size() + protectedSegment.size();
+        }
+
+        private Map.Entry<String, Categorization> removeEldest(LinkedHashMap<String, Categorization> segment) {
+            Iterator<Map.Entry<String, Categorization>> eldest = segment.entrySet().iterator();
+            Map.Entry<String, Categorization> entry = eldest.next();
+            eldest.remove();
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Categorizer is an engine that assigns a category to a task title
+ *
+ * AICategorizer delegates to the active engine (see AICategorizer.setEngine) and caches
+ * its results, so engines only see non-blank titles and must be safe to call from
+ * several threads at once.
+ */
+public interface Categorizer {
+
+    /**
+     * Gets the engine name used by -Dtodo.categorizer ("keyword" or "bayes")
+     */
+    String getName();
+
+    /**
+     * Computes category, confidence and suggestion for a title
+     *
+     * @param taskTitle A non-blank task title
+     * @return The categorization result
+     */
+    Categorization analyze(String taskTitle);
+
+    /**
+     * Gets the engine's confidence that a title belongs to a category
+     *
+     * @param taskTitle A non-blank task title
+     * @param category A category name
+     * @return Confidence score between 0.0 and 1.0
+     */
+    double getConfidenceScore(String taskTitle, String category);
+}
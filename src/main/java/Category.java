@@ -0,0 +1,57 @@
+/**
+ * Category enumerates the task categories; the ordinal is used by compact storage formats
+ */
+public enum Category {
+    WORK("Work"),
+    PERSONAL("Personal"),
+    URGENT("Urgent"),
+    GENERAL("General");
+    
+    private static final Category[] VALUES = values();
+    
+    private final String displayName;
+    
+    Category(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    /**
+     * Looks up a category by display name (case-insensitive)
+     * 
+     * @param name The category name
+     * @return The category, or GENERAL for unknown names
+     */
+    public static Category fromName(String name) {
+        Category category = lookup(name);
+        return category != null ? category : GENERAL;
+    }
+    
+    /**
+     * Looks up a category by display name (case-insensitive) without a fallback
+     * 
+     * @param name The category name
+     * @return The category, or null for unknown names
+     */
+    public static Category lookup(String name) {
+        for (Category category : VALUES) {
+            if (category.displayName.equalsIgnoreCase(name)) {
+                return category;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Looks up a category by ordinal
+     * 
+     * @param ordinal The ordinal
+     * @return The category, or GENERAL for unknown ordinals
+     */
+    public static Category fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : GENERAL;
+    }
+}
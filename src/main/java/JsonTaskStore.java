@@ -0,0 +1,332 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonTaskStore keeps all tasks in a single JSON array file
+ * Reading and writing stream one task at a time through buffered file channels, so no
+ * JSON document tree is built.
+ *
+ * The whole file is rewritten to tasks.json.tmp, fsynced and renamed over tasks.json, so
+ * a crash leaves either the old or the new list, never a truncated file. With a maximum
+ * staleness above zero the rewrite is write-behind: commit() only remembers the latest
+ * task list and a background thread writes it at most that long after the first unsaved
+ * change, so a burst of mutations costs one write. A list whose write fails stays pending
+ * (unless a newer one replaced it) and is retried. close() waits for a write in progress,
+ * then writes whatever is still pending and throws if that fails; a shutdown hook does the
+ * same on exit. whenDurable() lets a caller wait for pending changes.
+ */
+public class JsonTaskStore implements TaskStore {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final TypeAdapter<Task> TASK_ADAPTER = new TaskTypeAdapter();
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Gson COMPACT_GSON = new Gson();
+    private static final CompletableFuture<Void> DURABLE = CompletableFuture.completedFuture(null);
+
+    private final File file;
+    private final Path tempFile;
+    private final boolean compact;
+    private final long maxStalenessMillis;
+
+    // Lock order: fileLock -> dirtyLock
+    private final Object fileLock = new Object();
+    private final Object dirtyLock = new Object();
+    private Collection<Task> dirtyTasks; // latest unsaved list (an immutable snapshot); guarded by dirtyLock
+    private CompletableFuture<Void> dirtyFlush; // completes once dirtyTasks is on disk; guarded by dirtyLock
+    private CompletableFuture<Void> runningFlush; // completes once the write in progress is on disk; guarded by dirtyLock
+    private ScheduledThreadPoolExecutor flusher; // guarded by dirtyLock
+    private boolean closing; // no more scheduled writes; guarded by dirtyLock
+    private Thread shutdownHook;
+    private volatile PersistenceMetrics metrics;
+
+    public JsonTaskStore(String fileName) {
+        this(fileName, false);
+    }
+
+    /**
+     * Creates a store that writes every commit before returning
+     *
+     * @param fileName The JSON file
+     * @param compact Write without indentation (about half the size of pretty-printed output)
+     */
+    public JsonTaskStore(String fileName, boolean compact) {
+        this(fileName, compact, 0);
+    }
+
+    /**
+     * @param fileName The JSON file
+     * @param compact Write without indentation (about half the size of pretty-printed output)
+     * @param maxStalenessMillis How long a change may stay unsaved; 0 writes every commit before returning
+     */
+    public JsonTaskStore(String fileName, boolean compact, long maxStalenessMillis) {
+        this.file = new File(fileName);
+        this.tempFile = file.toPath().resolveSibling(file.getName() + ".tmp");
+        this.compact = compact;
+        this.maxStalenessMillis = Math.max(0, maxStalenessMillis);
+    }
+
+    @Override
+    public List<Task> load() throws IOException {
+        if (!file.exists()) {
+            System.out.println("📁 Creating new tasks file: " + file.getName());
+            return new ArrayList<>();
+        }
+        return readTasks(file);
+    }
+
+    @Override
+    public void commit(TaskMutation mutation, Collection<Task> tasks) throws IOException {
+        if (maxStalenessMillis == 0) {
+            synchronized (fileLock) {
+                writeAtomically(tasks);
+            }
+            return;
+        }
+        synchronized (dirtyLock) {
+            markDirty(tasks);
+        }
+    }
+
+    /**
+     * Remembers the latest list and schedules its write unless one is already due
+     * Caller holds dirtyLock
+     */
+    private void markDirty(Collection<Task> tasks) {
+        dirtyTasks = tasks;
+        if (dirtyFlush == null) {
+            dirtyFlush = new CompletableFuture<>();
+            if (!closing) {
+                startFlusher().schedule(this::flushQuietly, maxStalenessMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private ScheduledThreadPoolExecutor startFlusher() {
+        if (flusher == null) {
+            flusher = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "task-file-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // close() writes what is pending itself instead of waiting out the delay
+            flusher.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            shutdownHook = new Thread(this::flushQuietly, "task-file-flush");
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+        return flusher;
+    }
+
+    /**
+     * Writes the latest unsaved list, if any
+     *
+     * @throws IOException If the write fails; the list stays dirty unless a newer one is pending,
+     *     and is retried later (or by close())
+     */
+    private void flush() throws IOException {
+        synchronized (fileLock) {
+            Collection<Task> tasks;
+            CompletableFuture<Void> done;
+            synchronized (dirtyLock) {
+                if (dirtyTasks == null) {
+                    return;
+                }
+                tasks = dirtyTasks;
+                done = dirtyFlush;
+                dirtyTasks = null;
+                dirtyFlush = null;
+                runningFlush = done;
+            }
+            long startNanos = System.nanoTime();
+            try {
+                writeAtomically(tasks);
+                recordFlush(startNanos, false);
+                done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                recordFlush(startNanos, true);
+                synchronized (dirtyLock) {
+                    if (dirtyTasks == null) {
+                        markDirty(tasks);
+                    }
+                }
+                done.completeExceptionally(e);
+                throw e;
+            } finally {
+                synchronized (dirtyLock) {
+                    runningFlush = null;
+                }
+            }
+        }
+    }
+
+    private void recordFlush(long startNanos, boolean failed) {
+        PersistenceMetrics target = metrics;
+        if (target != null) {
+            target.record(PersistenceMetrics.FLUSH, System.nanoTime() - startNanos, failed);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("❌ Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the list to the temp file, fsyncs it and renames it over the task file
+     */
+    private void writeAtomically(Collection<Task> tasks) throws IOException {
+        writeTasks(tempFile.toFile(), tasks, compact, true);
+        Files.move(tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void setMetrics(PersistenceMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CompletableFuture<Void> whenDurable() {
+        synchronized (dirtyLock) {
+            // A pending write starts after the running one, so it covers every earlier commit
+            if (dirtyFlush != null) {
+                return dirtyFlush;
+            }
+            return runningFlush != null ? runningFlush : DURABLE;
+        }
+    }
+
+    @Override
+    public String getLocation() {
+        return file.getName();
+    }
+
+    /**
+     * Waits for a write in progress, then writes the pending list
+     *
+     * @throws IOException If the pending list cannot be written; tasks.json keeps the last saved list
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledThreadPoolExecutor executor;
+        synchronized (dirtyLock) {
+            closing = true;
+            executor = flusher;
+        }
+        boolean interrupted = false;
+        if (executor != null) {
+            // shutdown(), not shutdownNow(): interrupting a write closes its channel and fails it
+            executor.shutdown();
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down; the hook flushes too
+            }
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // The final flush below still waits for the running write through fileLock
+                interrupted = true;
+            }
+        }
+        try {
+            flush();
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Reads a JSON task array (pretty-printed or compact)
+     * Tasks saved before IDs existed get IDs after the highest stored one, in file order,
+     * so every reader of the same file assigns the same IDs
+     *
+     * @param file The file to read
+     * @return A mutable list of tasks (empty if the file is missing or empty)
+     * @throws IOException If the file cannot be read
+     */
+    static List<Task> readTasks(File file) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        if (!file.exists()) {
+            return tasks;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+             JsonReader reader = COMPACT_GSON.newJsonReader(
+                 Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), BUFFER_SIZE))) {
+            if (reader.peek() == JsonToken.END_DOCUMENT) {
+                return tasks;
+            }
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return tasks;
+            }
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Task task = TASK_ADAPTER.read(reader);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+            reader.endArray();
+        }
+        assignMissingIds(tasks);
+        return tasks;
+    }
+
+    private static void assignMissingIds(List<Task> tasks) {
+        long nextId = tasks.stream().mapToLong(Task::getId).max().orElse(0) + 1;
+        for (Task task : tasks) {
+            if (task.getId() <= 0) {
+                task.setId(nextId++);
+            }
+        }
+    }
+
+    /**
+     * Writes tasks as a JSON array, one task at a time
+     *
+     * @param file The file to (over)write
+     * @param tasks The tasks to write
+     * @param compact Write without indentation
+     * @param sync Whether to fsync the file before returning
+     * @throws IOException If the file cannot be written
+     */
+    static void writeTasks(File file, Collection<Task> tasks, boolean compact, boolean sync) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer out = new BufferedWriter(
+                Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE);
+            JsonWriter writer = (compact ? COMPACT_GSON : PRETTY_GSON).newJsonWriter(out);
+            writer.beginArray();
+            for (Task task : tasks) {
+                TASK_ADAPTER.write(writer, task);
+            }
+            writer.endArray();
+            writer.flush();
+            if (sync) {
+                channel.force(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.List;
+
+/**
+ * KeywordCategorizer assigns the first category, in the priority order Urgent > Work > Personal,
+ * whose keywords occur in the title, and General when none do
+ * Confidence grows with the number of distinct keywords of that category in the title
+ *
+ * The keyword lists can be replaced while running (see KeywordDictionary). update() compiles
+ * the new matcher on the caller's thread and then publishes it through one volatile field;
+ * categorization reads that field once per call, so it never blocks and never sees a
+ * half-built or mixed dictionary.
+ */
+public class KeywordCategorizer implements Categorizer {
+
+    // Category order doubles as the priority order: Urgent > Work > Personal
+    private static final String[] MATCHED_CATEGORIES = {"Urgent", "Work", "Personal"};
+
+    // All keyword lists compiled into a single automaton; replaced whole by update()
+    private volatile Dictionary dictionary;
+
+    public KeywordCategorizer(List<String> urgentKeywords, List<String> workKeywords, List<String> personalKeywords) {
+        this.dictionary = Dictionary.compile(0, urgentKeywords, workKeywords, personalKeywords);
+    }
+
+    /**
+     * Compiles new keyword lists and swaps them in; calls already running finish with the old lists
+     *
+     * @return The new dictionary version (the built-in lists are version 0)
+     */
+    public synchronized long update(List<String> urgentKeywords, List<String> workKeywords, List<String> personalKeywords) {
+        Dictionary next = Dictionary.compile(dictionary.version + 1, urgentKeywords, workKeywords, personalKeywords);
+        dictionary = next;
+        return next.version;
+    }
+
+    /**
+     * Gets the version of the keyword lists in use: 0 for the built-in lists, then one more per update
+     */
+    public long getVersion() {
+        return dictionary.version;
+    }
+
+    /**
+     * Gets the number of keywords in use
+     */
+    public int getKeywordCount() {
+        return dictionary.keywordCount;
+    }
+
+    @Override
+    public String getName() {
+        return "keyword";
+    }
+
+    @Override
+    public Categorization analyze(String taskTitle) {
+        KeywordMatcher.Result match = dictionary.matcher.match(taskTitle);
+        int categoryIndex = match.getFirstMatchedCategory();
+        double confidence = categoryIndex < 0 ? 0.3 : confidenceFor(match.getMatchCount(categoryIndex));
+        return new Categorization(categoryName(categoryIndex), confidence, AICategorizer.suggestionFor(confidence));
+    }
+
+    @Override
+    public double getConfidenceScore(String taskTitle, String category) {
+        int categoryIndex = categoryIndex(category);
+        if (categoryIndex < 0) {
+            return 0.3; // Low confidence for general category
+        }
+        return confidenceFor(dictionary.matcher.match(taskTitle).getMatchCount(categoryIndex));
+    }
+
+    /**
+     * Maps a keyword match count to a confidence score
+     */
+    private static double confidenceFor(int matchCount) {
+        if (matchCount == 0) {
+            return 0.3;
+        } else if (matchCount == 1) {
+            return 0.7;
+        } else if (matchCount == 2) {
+            return 0.85;
+        } else {
+            return 0.95;
+        }
+    }
+
+    private static String categoryName(int categoryIndex) {
+        return categoryIndex < 0 ? "General" : MATCHED_CATEGORIES[categoryIndex];
+    }
+
+    private static int categoryIndex(String category) {
+        for (int i = 0; i < MATCHED_CATEGORIES.length; i++) {
+            if (MATCHED_CATEGORIES[i].equalsIgnoreCase(category)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A compiled set of keyword lists with its version
+     */
+    private static final class Dictionary {
+        final KeywordMatcher matcher;
+        final long version;
+        final int keywordCount;
+
+        private Dictionary(KeywordMatcher matcher, long version, int keywordCount) {
+            this.matcher = matcher;
+            this.version = version;
+            this.keywordCount = keywordCount;
+        }
+
+        static Dictionary compile(long version, List<String> urgent, List<String> work, List<String> personal) {
+            KeywordMatcher matcher = new KeywordMatcher(urgent, work, personal);
+            return new Dictionary(matcher, version, matcher.getKeywordCount());
+        }
+    }
+}
@@ -0,0 +1,238 @@
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * KeywordDictionary loads the keyword lists of a KeywordCategorizer from a JSON file and
+ * reloads them whenever the file changes, without a restart
+ *
+ * File format (every list is optional; a missing list is empty):
+ *   {"urgent": ["asap", "today"], "work": ["meeting"], "personal": ["gym"]}
+ *
+ * A daemon thread watches the file's directory with a WatchService. After a change it waits
+ * briefly for the writes to settle, reads and compiles the new lists on that thread, swaps
+ * them into the categorizer and then invalidates the categorization cache. A file that fails
+ * to parse is reported and the lists in use stay as they are.
+ */
+public class KeywordDictionary implements AutoCloseable {
+    private static final long SETTLE_MILLIS = 100;
+    private static final List<String> CATEGORY_KEYS = Arrays.asList("urgent", "work", "personal");
+
+    private final Path file;
+    private final KeywordCategorizer categorizer;
+    private final Runnable onReload;
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastReloadNanos;
+    private byte[] lastContent; // only touched by load(), which runs on one thread at a time
+    private WatchService watcher;
+
+    /**
+     * @param file The dictionary file
+     * @param categorizer Receives the compiled lists
+     * @param onReload Runs after every swap, for example to invalidate cached results
+     */
+    public KeywordDictionary(Path file, KeywordCategorizer categorizer, Runnable onReload) {
+        this.file = file.toAbsolutePath().normalize();
+        this.categorizer = categorizer;
+        this.onReload = onReload;
+    }
+
+    /**
+     * Loads the file now (if it exists) and keeps watching it for changes on a daemon thread
+     *
+     * @throws IOException If the directory cannot be watched
+     */
+    public synchronized void start() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        if (Files.exists(file)) {
+            load();
+        }
+        watcher = FileSystems.getDefault().newWatchService();
+        file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::watch, "keyword-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void watch() {
+        WatchService service = watcher;
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = touchesFile(key);
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+                // Editors often write a file in several steps; wait until it goes quiet
+                WatchKey next;
+                while ((next = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    next.pollEvents();
+                    next.reset();
+                }
+                load();
+            }
+        } catch (ClosedWatchServiceException e) {
+            // close() was called
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean touchesFile(WatchKey key) {
+        boolean touched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || (context instanceof Path && file.getFileName().equals(context))) {
+                touched = true;
+            }
+        }
+        return touched;
+    }
+
+    /**
+     * Reads, compiles and installs the file's keyword lists unless the file is unchanged
+     *
+     * @return Whether new lists were installed
+     */
+    synchronized boolean load() {
+        long start = System.nanoTime();
+        try {
+            byte[] content = Files.readAllBytes(file);
+            if (Arrays.equals(content, lastContent)) {
+                return false;
+            }
+            Map<String, List<String>> lists = parse(new String(content, StandardCharsets.UTF_8));
+            long version = categorizer.update(lists.get("urgent"), lists.get("work"), lists.get("personal"));
+            onReload.run();
+            lastContent = content;
+            lastReloadNanos = System.nanoTime() - start;
+            reloads.incrementAndGet();
+            System.out.printf("🔁 Keyword dictionary v%d loaded from %s: %d keywords in %.1f ms%n",
+                version, file.getFileName(), categorizer.getKeywordCount(), lastReloadNanos / 1e6);
+            return true;
+        } catch (NoSuchFileException e) {
+            // Deleted or being replaced; the next create event loads it again
+            return false;
+        } catch (IOException | IllegalArgumentException e) {
+            failures.incrementAndGet();
+            System.err.println("❌ Keeping keyword dictionary v" + categorizer.getVersion()
+                + ", could not load " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Parses a dictionary file
+     *
+     * @param json The file content
+     * @return The "urgent", "work" and "personal" lists (empty when absent)
+     * @throws IllegalArgumentException If the content is not a valid dictionary
+     */
+    static Map<String, List<String>> parse(String json) {
+        JsonElement root;
+        try {
+            root = JsonParser.parseString(json);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getMessage(), e);
+        }
+        if (!root.isJsonObject()) {
+            throw new IllegalArgumentException("Expected a JSON object of keyword lists");
+        }
+        JsonObject object = root.getAsJsonObject();
+        for (String key : object.keySet()) {
+            if (!CATEGORY_KEYS.contains(key.toLowerCase())) {
+                throw new IllegalArgumentException("Unknown category: " + key + " (expected urgent, work or personal)");
+            }
+        }
+
+        Map<String, List<String>> lists = new HashMap<>();
+        for (String category : CATEGORY_KEYS) {
+            lists.put(category, Collections.emptyList());
+        }
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            if (!entry.getValue().isJsonArray()) {
+                throw new IllegalArgumentException("Keywords for " + entry.getKey() + " must be an array");
+            }
+            JsonArray array = entry.getValue().getAsJsonArray();
+            List<String> keywords = new ArrayList<>(array.size());
+            for (JsonElement keyword : array) {
+                if (!keyword.isJsonPrimitive() || !keyword.getAsJsonPrimitive().isString()) {
+                    throw new IllegalArgumentException("Keywords for " + entry.getKey() + " must be strings");
+                }
+                keywords.add(keyword.getAsString());
+            }
+            lists.put(entry.getKey().toLowerCase(), keywords);
+        }
+        return lists;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the time the last successful reload took (read, parse, compile and swap)
+     */
+    public long getLastReloadNanos() {
+        return lastReloadNanos;
+    }
+
+    /**
+     * Appends the dictionary version and reload counters in Prometheus text format
+     *
+     * @param sb The output
+     */
+    public void writePrometheus(StringBuilder sb) {
+        sb.append("# HELP todo_categorizer_keywords_version Version of the keyword dictionary in use (0 = built-in)\n");
+        sb.append("# TYPE todo_categorizer_keywords_version gauge\n");
+        sb.append("todo_categorizer_keywords_version ").append(categorizer.getVersion()).append('\n');
+        sb.append("# HELP todo_categorizer_keywords Keywords in the dictionary in use\n");
+        sb.append("# TYPE todo_categorizer_keywords gauge\n");
+        sb.append("todo_categorizer_keywords ").append(categorizer.getKeywordCount()).append('\n');
+        sb.append("# HELP todo_categorizer_keyword_reloads_total Keyword dictionary reloads by result\n");
+        sb.append("# TYPE todo_categorizer_keyword_reloads_total counter\n");
+        sb.append("todo_categorizer_keyword_reloads_total{result=\"ok\"} ").append(reloads.get()).append('\n');
+        sb.append("todo_categorizer_keyword_reloads_total{result=\"error\"} ").append(failures.get()).append('\n');
+        sb.append("# HELP todo_categorizer_keyword_reload_seconds Duration of the last successful keyword dictionary reload\n");
+        sb.append("# TYPE todo_categorizer_keyword_reload_seconds gauge\n");
+        sb.append("todo_categorizer_keyword_reload_seconds ").append(lastReloadNanos / 1e9).append('\n');
+    }
+
+    /**
+     * Stops watching the file
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * KeywordMatcher compiles several keyword lists into one Aho-Corasick automaton
+ * so a single pass over a title finds every keyword of every list
+ * Matching is case-insensitive and counts each distinct keyword once, exactly like
+ * calling String.contains for every keyword on the lowercased title
+ */
+public class KeywordMatcher {
+    private final int categoryCount;
+    private final int keywordCount;
+    private final int[] keywordCategory;
+
+    // Alphabet: every character used by a keyword gets a class, class 0 is "anything else"
+    private final int[] asciiClass = new int[128];
+    private final char[] otherChars;
+    private final int[] otherClass;
+    private final int alphabetSize;
+
+    // Full DFA: transitions[state * alphabetSize + charClass] -> next state
+    private final int[] transitions;
+    // Keyword ids recognized when entering a state (own match plus suffix matches)
+    private final int[][] outputs;
+
+    /**
+     * Compiles the given keyword lists, one list per category
+     *
+     * @param categories Keyword lists; the list position is the category index
+     */
+    @SafeVarargs
+    public KeywordMatcher(List<String>... categories) {
+        this.categoryCount = categories.length;
+
+        List<String> keywords = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (int category = 0; category < categories.length; category++) {
+            for (String keyword : categories[category]) {
+                String lower = keyword.toLowerCase();
+                if (lower.isEmpty()) {
+                    continue;
+                }
+                keywords.add(lower);
+                owners.add(category);
+                for (int i = 0; i < lower.length(); i++) {
+                    alphabet.add(lower.charAt(i));
+                }
+            }
+        }
+
+        this.keywordCount = keywords.size();
+        this.keywordCategory = owners.stream().mapToInt(Integer::intValue).toArray();
+
+        // Assign character classes (1..n), keeping non-ASCII characters in a sorted side table
+        List<Character> nonAscii = new ArrayList<>();
+        int nextClass = 1;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiClass[c] = nextClass++;
+            } else {
+                nonAscii.add(c);
+            }
+        }
+        this.otherChars = new char[nonAscii.size()];
+        this.otherClass = new int[nonAscii.size()];
+        for (int i = 0; i < nonAscii.size(); i++) {
+            otherChars[i] = nonAscii.get(i);
+            otherClass[i] = nextClass++;
+        }
+        this.alphabetSize = nextClass;
+
+        // Build the trie; 0 is the root so a 0 transition means "no edge" while building
+        int maxStates = 1 + keywords.stream().mapToInt(String::length).sum();
+        int[] trie = new int[maxStates * alphabetSize];
+        List<List<Integer>> stateOutputs = new ArrayList<>();
+        stateOutputs.add(new ArrayList<>());
+        int stateCount = 1;
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int slot = state * alphabetSize + classOf(keyword.charAt(i));
+                if (trie[slot] == 0) {
+                    trie[slot] = stateCount++;
+                    stateOutputs.add(new ArrayList<>());
+                }
+                state = trie[slot];
+            }
+            stateOutputs.get(state).add(id);
+        }
+
+        // Breadth-first pass computes failure links and turns the trie into a full DFA
+        int[] fail = new int[stateCount];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < alphabetSize; c++) {
+            int child = trie[c];
+            if (child != 0) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            stateOutputs.get(state).addAll(stateOutputs.get(fail[state]));
+            for (int c = 0; c < alphabetSize; c++) {
+                int slot = state * alphabetSize + c;
+                int child = trie[slot];
+                int fallback = trie[fail[state] * alphabetSize + c];
+                if (child != 0) {
+                    fail[child] = fallback;
+                    queue.add(child);
+                } else {
+                    trie[slot] = fallback;
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(trie, stateCount * alphabetSize);
+        this.outputs = new int[stateCount][];
+        for (int state = 0; state < stateCount; state++) {
+            outputs[state] = stateOutputs.get(state).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Scans the text once and collects the distinct keyword hits per category
+     *
+     * @param text The text to scan (case-insensitive)
+     * @return The match counts; the only object allocated by the scan
+     */
+    public Result match(String text) {
+        Result result = new Result(categoryCount, keywordCount);
+        if (text == null) {
+            return result;
+        }
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            state = transitions[state * alphabetSize + classOf(c)];
+            for (int keyword : outputs[state]) {
+                result.hit(keyword, keywordCategory[keyword]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of keywords compiled into the automaton
+     *
+     * @return The keyword count
+     */
+    public int getKeywordCount() {
+        return keywordCount;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClass[c];
+        }
+        int i = Arrays.binarySearch(otherChars, c);
+        return i >= 0 ? otherClass[i] : 0;
+    }
+
+    /**
+     * Result of a single scan: how many distinct keywords of each category were found
+     */
+    public static class Result {
+        private final int[] counts;
+        private final long[] seen;
+
+        private Result(int categoryCount, int keywordCount) {
+            this.counts = new int[categoryCount];
+            this.seen = new long[(keywordCount + 63) >>> 6];
+        }
+
+        private void hit(int keyword, int category) {
+            long bit = 1L << (keyword & 63);
+            int word = keyword >>> 6;
+            if ((seen[word] & bit) == 0) {
+                seen[word] |= bit;
+                counts[category]++;
+            }
+        }
+
+        /**
+         * Gets the number of distinct keywords matched for a category
+         *
+         * @param category The category index
+         * @return The match count
+         */
+        public int getMatchCount(int category) {
+            return counts[category];
+        }
+
+        /**
+         * Gets the first category (in list order) that has at least one match
+         *
+         * @return The category index, or -1 when nothing matched
+         */
+        public int getFirstMatchedCategory() {
+            for (int category = 0; category < counts.length; category++) {
+                if (counts[category] > 0) {
+                    return category;
+                }
+            }
+            return -1;
+        }
+    }
+}
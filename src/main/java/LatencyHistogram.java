@@ -0,0 +1,131 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram counts durations in log-linear buckets, like HdrHistogram:
+ * every power of two is split into SUB_BUCKETS equal buckets, so the relative error
+ * is at most 1 / SUB_BUCKETS (6.25%) from 1 ns up to about 68 s
+ *
+ * Prometheus output uses a coarser, fixed subset of the bucket bounds (EXPORTED_SUB_BUCKETS
+ * per power of two) to keep the series count down; percentiles use every bucket.
+ *
+ * Recording is lock-free and allocation-free (two atomic increments and an add);
+ * readers may see a count and sum from slightly different instants.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXPORTED_SUB_BUCKETS = 2; // le bounds at 1.5 x 2^n and 2 x 2^n
+    private static final int MAX_EXPONENT = 36; // values >= 2^36 ns land in the last bucket
+    private static final int BUCKETS = 2 * SUB_BUCKETS + (MAX_EXPONENT - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // Range of bucket upper bounds written to Prometheus: about 4 us to 34 s
+    private static final long MIN_EXPORTED_BOUND = 1L << 12;
+    private static final long MAX_EXPORTED_BOUND = 1L << 35;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumNanos = new AtomicLong();
+
+    /**
+     * Records one duration
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sumNanos.addAndGet(value);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.get();
+    }
+
+    /**
+     * Estimates a percentile from the bucket counts
+     *
+     * @param percentile 0 to 100
+     * @return Upper bound of the bucket holding that percentile, in nanoseconds (0 if empty)
+     */
+    public long getPercentileNanos(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Appends this histogram in Prometheus text format (the TYPE line is the caller's)
+     *
+     * @param sb The output
+     * @param name Metric family name, in seconds
+     * @param labels Label pairs without braces, e.g. route="/api/tasks"
+     */
+    public void writePrometheus(StringBuilder sb, String name, String labels) {
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts.get(i);
+            long bound = upperBound(i);
+            if (bound < MIN_EXPORTED_BOUND || bound > MAX_EXPORTED_BOUND || !isExported(i)) {
+                continue;
+            }
+            sb.append(name).append("_bucket{").append(labels).append(",le=\"")
+                .append(bound / 1e9).append("\"} ").append(cumulative).append('\n');
+        }
+        long total = count.get();
+        sb.append(name).append("_bucket{").append(labels).append(",le=\"+Inf\"} ").append(total).append('\n');
+        sb.append(name).append("_sum{").append(labels).append("} ").append(sumNanos.get() / 1e9).append('\n');
+        sb.append(name).append("_count{").append(labels).append("} ").append(total).append('\n');
+    }
+
+    /**
+     * Whether a bucket's upper bound is one of the exported le bounds
+     */
+    private static boolean isExported(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return true;
+        }
+        int mantissa = (index - 2 * SUB_BUCKETS) % SUB_BUCKETS;
+        return (mantissa + 1) % (SUB_BUCKETS / EXPORTED_SUB_BUCKETS) == 0;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int mantissa = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return 2 * SUB_BUCKETS + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Gets the exclusive upper bound of a bucket in nanoseconds
+     */
+    static long upperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index + 1;
+        }
+        int offset = index - 2 * SUB_BUCKETS;
+        int exponent = offset / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int mantissa = offset % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + mantissa + 1) << (exponent - SUB_BUCKET_BITS);
+    }
+}
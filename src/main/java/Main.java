@@ -1,4 +1,11 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.CompletionException;
 
 /**
  * Main class - CLI interface for AI-Powered To-Do Manager
@@ -9,27 +16,27 @@ public class Main {
     private static final String VERSION = "v1.0.0";
     private static final String AUTHOR = "Saurabh";
     private static final String DOMAIN = "todo.saurabhh.in";
+    private static final String KEYWORDS_FILE = "keywords.json";
     
     private static TaskManager taskManager;
     private static Scanner scanner;
     
     public static void main(String[] args) {
+        // One-shot conversions between tasks.json and the binary store
+        if (args != null && args.length > 0 && args[0].toLowerCase().startsWith("binary-")) {
+            convertBinaryStore(args);
+            return;
+        }
+        
         // Initialize components
         taskManager = new TaskManager();
+        watchKeywords(System.getProperty("todo.keywords"));
+        selectCategorizer(System.getProperty("todo.categorizer", "keyword"));
         scanner = new Scanner(System.in);
         
         // If started in web mode, start HTTP server and exit CLI loop
         if (args != null && args.length > 0 && "web".equalsIgnoreCase(args[0])) {
-            System.out.println("\n" + "=".repeat(60));
-            System.out.println("🌐 Starting Web Mode for " + APP_NAME + " " + VERSION);
-            System.out.println("🔗 Open http://localhost:8080/");
-            System.out.println("=".repeat(60));
-            try {
-                WebServer server = new WebServer(taskManager, 8080);
-                server.start();
-            } catch (Exception e) {
-                System.out.println("❌ Failed to start web server: " + e.getMessage());
-            }
+            startWebMode(args);
             return;
         }
         
@@ -50,10 +57,133 @@ public class Main {
         }
         
         // Cleanup and exit
+        taskManager.close();
         displayGoodbye();
         scanner.close();
     }
     
+    /**
+     * Loads the keyword lists from a JSON file and reloads them when it changes
+     * Uses the given file, or keywords.json in the working directory if it exists;
+     * otherwise the built-in lists stay in use
+     * 
+     * @param file The file from -Dtodo.keywords, or null
+     */
+    private static void watchKeywords(String file) {
+        File keywords = new File(file != null ? file : KEYWORDS_FILE);
+        if (file == null && !keywords.exists()) {
+            return;
+        }
+        try {
+            AICategorizer.watchKeywords(keywords.toPath());
+            System.out.println("👀 Watching " + keywords + " for keyword changes");
+        } catch (IOException e) {
+            System.err.println("❌ Cannot watch " + keywords + ", keyword changes need a restart: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Selects the categorization engine: "keyword" (default) or "bayes", a naive Bayes
+     * model trained from the categories of the tasks just loaded
+     * 
+     * @param name The engine name
+     */
+    private static void selectCategorizer(String name) {
+        switch (name.toLowerCase()) {
+            case "keyword":
+                break;
+            case "bayes":
+                try {
+                    long start = System.nanoTime();
+                    BayesCategorizer model = BayesCategorizer.train(taskManager.getTasks());
+                    AICategorizer.setEngine(model);
+                    System.out.printf("🧠 Categorizer: %s (%.1f ms)%n", model, (System.nanoTime() - start) / 1e6);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("❌ Naive Bayes categorizer unavailable, using keywords: " + e.getMessage());
+                }
+                break;
+            default:
+                System.err.println("❌ Unknown categorizer '" + name + "', using keywords");
+        }
+    }
+    
+    /**
+     * Starts the web server
+     * Flags: --port N (default 8080), --threads N (0 = virtual threads on JDK 21+, default 0),
+     * --queue N (request queue limit for platform threads, default 1000),
+     * --backlog N (pending connection limit, 0 = system default)
+     * 
+     * @param args Command-line arguments, starting with "web"
+     */
+    private static void startWebMode(String[] args) {
+        try {
+            Map<String, String> flags = parseFlags(args, 1);
+            int port = Integer.parseInt(flags.getOrDefault("port", "8080"));
+            int threads = Integer.parseInt(flags.getOrDefault("threads", "0"));
+            int queue = Integer.parseInt(flags.getOrDefault("queue", "1000"));
+            int backlog = Integer.parseInt(flags.getOrDefault("backlog", "0"));
+            
+            System.out.println("\n" + "=".repeat(60));
+            System.out.println("🌐 Starting Web Mode for " + APP_NAME + " " + VERSION);
+            System.out.println("🔗 Open http://localhost:" + port + "/");
+            System.out.println("=".repeat(60));
+            
+            WebServer server = new WebServer(taskManager, port, backlog, WebServer.createExecutor(threads, queue));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                taskManager.close();
+            }));
+            server.start();
+        } catch (Exception e) {
+            System.out.println("❌ Failed to start web server: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Converts between tasks.json and tasks.bin
+     * Usage: binary-import [json-file] [binary-file] | binary-export [binary-file] [json-file]
+     * 
+     * @param args Command-line arguments, starting with the command
+     */
+    private static void convertBinaryStore(String[] args) {
+        try {
+            String command = args[0].toLowerCase();
+            if (command.equals("binary-import")) {
+                File json = new File(args.length > 1 ? args[1] : "tasks.json");
+                File binary = new File(args.length > 2 ? args[2] : "tasks.bin");
+                int count = BinaryTaskStore.importJson(json, binary);
+                System.out.println("📦 Imported " + count + " tasks from " + json + " into " + binary);
+            } else if (command.equals("binary-export")) {
+                File binary = new File(args.length > 1 ? args[1] : "tasks.bin");
+                File json = new File(args.length > 2 ? args[2] : "tasks.json");
+                int count = BinaryTaskStore.exportJson(binary, json);
+                System.out.println("📤 Exported " + count + " tasks from " + binary + " to " + json);
+            } else {
+                System.out.println("❌ Unknown command: " + args[0] + " (use binary-import or binary-export)");
+            }
+        } catch (IOException e) {
+            System.out.println("❌ Conversion failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Parses "--name value" pairs
+     * 
+     * @param args Command-line arguments
+     * @param start Index of the first flag
+     * @return Flag values by name (without the leading dashes)
+     */
+    private static Map<String, String> parseFlags(String[] args, int start) {
+        Map<String, String> flags = new HashMap<>();
+        for (int i = start; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value, got: " + args[i]);
+            }
+            flags.put(args[i].substring(2), args[++i]);
+        }
+        return flags;
+    }
+    
     /**
      * Displays welcome message and app info
      */
@@ -92,9 +222,10 @@ public class Main {
         System.out.println("10. 📊 Task Summary");
         System.out.println("11. 🧹 Clear Completed Tasks");
         System.out.println("12. ❓ Help");
+        System.out.println("13. 📥 Import Tasks");
         System.out.println("0. 🚪 Exit");
         System.out.println("-".repeat(40));
-        System.out.print("👉 Enter your choice (0-12): ");
+        System.out.print("👉 Enter your choice (0-13): ");
     }
     
     /**
@@ -107,7 +238,7 @@ public class Main {
             String input = scanner.nextLine().trim();
             return Integer.parseInt(input);
         } catch (NumberFormatException e) {
-            System.out.println("❌ Invalid input. Please enter a number between 0-12.");
+            System.out.println("❌ Invalid input. Please enter a number between 0-13.");
             return -1;
         }
     }
@@ -156,10 +287,13 @@ public class Main {
             case 12:
                 displayHelp();
                 break;
+            case 13:
+                importTasks();
+                break;
             case 0:
                 return false; // Exit
             default:
-                System.out.println("❌ Invalid choice. Please enter a number between 0-12.");
+                System.out.println("❌ Invalid choice. Please enter a number between 0-13.");
         }
         
         // Pause before showing menu again
@@ -193,6 +327,46 @@ public class Main {
         }
     }
     
+    /**
+     * Imports many tasks from a file or pasted lines
+     */
+    private static void importTasks() {
+        System.out.println("\n📥 IMPORT TASKS");
+        System.out.println("-".repeat(30));
+        System.out.println("One title per line, or a JSON array of titles");
+        System.out.print("📄 Enter file path (or press Enter to paste titles, ending with an empty line): ");
+        
+        String path = scanner.nextLine().trim();
+        String input;
+        if (path.isEmpty()) {
+            StringBuilder pasted = new StringBuilder();
+            String line;
+            while (scanner.hasNextLine() && !(line = scanner.nextLine()).isEmpty()) {
+                pasted.append(line).append('\n');
+            }
+            input = pasted.toString();
+        } else {
+            try {
+                input = Files.readString(Paths.get(path));
+            } catch (IOException e) {
+                System.out.println("❌ Could not read " + path + ": " + e.getMessage());
+                return;
+            }
+        }
+        
+        try {
+            TaskImport result = taskManager.importTasks(TaskImport.parseTitles(input));
+            System.out.println("\n✅ " + result);
+            // A large import is worth confirming on disk before the user moves on
+            taskManager.whenPersisted().join();
+            System.out.println("💾 Saved");
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ " + e.getMessage());
+        } catch (CompletionException e) {
+            System.out.println("❌ Imported tasks are not saved yet: " + e.getCause().getMessage());
+        }
+    }
+    
     /**
      * Adds a task with manual category selection
      */
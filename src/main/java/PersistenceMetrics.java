@@ -0,0 +1,77 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * PersistenceMetrics keeps a latency histogram and an error count for each task store operation:
+ * load, one commit per mutation type, sync (waiting for committed changes to reach the disk),
+ * close, and flush (a background write of a write-behind store)
+ */
+public class PersistenceMetrics {
+    public static final int LOAD = 0;
+    public static final int CLOSE = 1;
+    public static final int FLUSH = 2;
+    public static final int SYNC = 3;
+    private static final int FIRST_COMMIT = 4;
+
+    private final String[] operations;
+    private final LatencyHistogram[] latencies;
+    private final AtomicLongArray errors;
+
+    public PersistenceMetrics() {
+        TaskMutation.Type[] types = TaskMutation.Type.values();
+        operations = new String[FIRST_COMMIT + types.length];
+        operations[LOAD] = "load";
+        operations[CLOSE] = "close";
+        operations[FLUSH] = "flush";
+        operations[SYNC] = "sync";
+        for (TaskMutation.Type type : types) {
+            operations[commitOperation(type)] = "commit_" + type.name().toLowerCase();
+        }
+        latencies = new LatencyHistogram[operations.length];
+        for (int i = 0; i < operations.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        errors = new AtomicLongArray(operations.length);
+    }
+
+    /**
+     * Gets the operation index for committing a mutation type
+     */
+    public static int commitOperation(TaskMutation.Type type) {
+        return FIRST_COMMIT + type.ordinal();
+    }
+
+    /**
+     * Records one store operation
+     *
+     * @param operation LOAD, CLOSE, FLUSH, SYNC or commitOperation(type)
+     * @param nanos Time spent in the store
+     * @param failed Whether the store threw
+     */
+    public void record(int operation, long nanos, boolean failed) {
+        latencies[operation].record(nanos);
+        if (failed) {
+            errors.incrementAndGet(operation);
+        }
+    }
+
+    /**
+     * Appends all persistence metrics in Prometheus text format
+     *
+     * @param sb The output
+     */
+    public void writePrometheus(StringBuilder sb) {
+        sb.append("# HELP todo_store_errors_total Failed task store operations\n");
+        sb.append("# TYPE todo_store_errors_total counter\n");
+        for (int i = 0; i < operations.length; i++) {
+            sb.append("todo_store_errors_total{op=\"").append(operations[i]).append("\"} ")
+                .append(errors.get(i)).append('\n');
+        }
+
+        sb.append("# HELP todo_store_operation_duration_seconds Time spent in the task store\n");
+        sb.append("# TYPE todo_store_operation_duration_seconds histogram\n");
+        for (int i = 0; i < operations.length; i++) {
+            latencies[i].writePrometheus(sb, "todo_store_operation_duration_seconds",
+                "op=\"" + operations[i] + "\"");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * RequestMetrics keeps a latency histogram and per-status request counts for each HTTP route
+ * Routes are registered up front and recorded by index, so recording never allocates.
+ */
+public class RequestMetrics {
+    private static final int STATUS_CODES = 600;
+
+    private final String[] routes;
+    private final LatencyHistogram[] latencies;
+    private final AtomicLongArray statusCounts; // [route * STATUS_CODES + status]
+
+    /**
+     * @param routes Route names, used as the route label
+     */
+    public RequestMetrics(String... routes) {
+        this.routes = routes.clone();
+        this.latencies = new LatencyHistogram[routes.length];
+        for (int i = 0; i < routes.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        this.statusCounts = new AtomicLongArray(routes.length * STATUS_CODES);
+    }
+
+    /**
+     * Looks up a route's index (done once, when a handler is registered)
+     *
+     * @param route The route name
+     * @return The index to pass to record
+     */
+    public int indexOf(String route) {
+        int index = Arrays.asList(routes).indexOf(route);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown route: " + route);
+        }
+        return index;
+    }
+
+    /**
+     * Records one finished request
+     *
+     * @param route Route index from indexOf
+     * @param status HTTP status code (anything outside 0-599 is counted as 0)
+     * @param nanos Time spent handling the request
+     */
+    public void record(int route, int status, long nanos) {
+        latencies[route].record(nanos);
+        int code = status >= 0 && status < STATUS_CODES ? status : 0;
+        statusCounts.incrementAndGet(route * STATUS_CODES + code);
+    }
+
+    /**
+     * Appends all request metrics in Prometheus text format
+     *
+     * @param sb The output
+     */
+    public void writePrometheus(StringBuilder sb) {
+        sb.append("# HELP todo_http_requests_total HTTP requests by route and status code\n");
+        sb.append("# TYPE todo_http_requests_total counter\n");
+        for (int route = 0; route < routes.length; route++) {
+            for (int status = 0; status < STATUS_CODES; status++) {
+                long count = statusCounts.get(route * STATUS_CODES + status);
+                if (count > 0) {
+                    sb.append("todo_http_requests_total{route=\"").append(routes[route])
+                        .append("\",status=\"").append(status).append("\"} ").append(count).append('\n');
+                }
+            }
+        }
+
+        sb.append("# HELP todo_http_request_duration_seconds Time spent handling HTTP requests\n");
+        sb.append("# TYPE todo_http_request_duration_seconds histogram\n");
+        for (int route = 0; route < routes.length; route++) {
+            latencies[route].writePrometheus(sb, "todo_http_request_duration_seconds",
+                "route=\"" + routes[route] + "\"");
+        }
+    }
+}
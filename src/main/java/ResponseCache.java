@@ -0,0 +1,90 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ResponseCache keeps serialized UTF-8 response bodies per view of the task list
+ * Entries are tagged with the snapshot revision they were rendered from, so a mutation
+ * invalidates every entry without any explicit eviction
+ */
+public class ResponseCache {
+  private final ConcurrentHashMap<String, Body> bodies = new ConcurrentHashMap<>();
+
+  /**
+   * Gets the cached body for a view, rendering it if the cached copy is older than the revision
+   *
+   * @param key The view (for example a filter name)
+   * @param revision The snapshot revision the caller is serving
+   * @param render Renders the body; only called on a miss
+   * @return The body for that revision
+   */
+  public Body get(String key, long revision, Supplier<String> render) {
+    Body cached = bodies.get(key);
+    if (cached != null && cached.revision == revision) {
+      return cached;
+    }
+    Body fresh = new Body(revision, render.get().getBytes(StandardCharsets.UTF_8));
+    // Never replace a body rendered from a newer snapshot with an older one
+    bodies.merge(key, fresh, (old, candidate) -> old.revision > candidate.revision ? old : candidate);
+    return fresh;
+  }
+
+  /**
+   * An immutable response body with a lazily computed gzip variant
+   */
+  public static class Body {
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final long revision;
+    private final byte[] bytes;
+    private volatile byte[] gzipped;
+
+    Body(long revision, byte[] bytes) {
+      this.revision = revision;
+      this.bytes = bytes;
+    }
+
+    public long getRevision() {
+      return revision;
+    }
+
+    public byte[] getBytes() {
+      return bytes;
+    }
+
+    /**
+     * Whether compressing this body is worth it
+     */
+    public boolean isCompressible() {
+      return bytes.length >= GZIP_MIN_BYTES;
+    }
+
+    /**
+     * Gets the gzip-compressed body, compressing it on first use
+     */
+    public byte[] getGzipped() {
+      byte[] result = gzipped;
+      if (result == null) {
+        result = gzip(bytes);
+        gzipped = result;
+      }
+      return result;
+    }
+
+    static byte[] gzip(byte[] bytes) {
+      try {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+          gz.write(bytes);
+        }
+        return out.toByteArray();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
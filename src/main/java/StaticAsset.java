@@ -0,0 +1,143 @@
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * StaticAsset is a web UI file loaded once from the classpath
+ *
+ * The bytes, the gzip variant (text types only; images are already compressed) and a
+ * content-hash ETag are computed at startup, so serving an asset never touches the disk
+ * and a revalidation that still matches is answered with 304 and no body.
+ */
+public class StaticAsset {
+  private final String contentType;
+  private final String cacheControl;
+  private final String etag;
+  private final String gzipEtag;
+  private final byte[] bytes;
+  private final byte[] gzipped;
+
+  private StaticAsset(String contentType, String cacheControl, byte[] bytes, boolean compress) {
+    this.contentType = contentType;
+    this.cacheControl = cacheControl;
+    this.bytes = bytes;
+    this.etag = "\"" + hash(bytes) + "\"";
+    byte[] gz = compress ? ResponseCache.Body.gzip(bytes) : null;
+    // Keep the gzip variant only if it actually saves bytes
+    this.gzipped = gz != null && gz.length < bytes.length ? gz : null;
+    this.gzipEtag = WebServer.gzipEtag(etag);
+  }
+
+  /**
+   * Loads an asset from the classpath
+   *
+   * @param resource The resource name, for example "index.html"
+   * @param contentType The Content-Type to serve it with
+   * @param cacheControl The Cache-Control to serve it with
+   * @return The asset, or null if the resource is missing
+   */
+  public static StaticAsset load(String resource, String contentType, String cacheControl) {
+    try (InputStream in = StaticAsset.class.getClassLoader().getResourceAsStream(resource)) {
+      if (in == null) {
+        System.err.println("❌ Web asset not found on the classpath: " + resource);
+        return null;
+      }
+      return new StaticAsset(contentType, cacheControl, in.readAllBytes(), contentType.startsWith("text/"));
+    } catch (IOException e) {
+      System.err.println("❌ Error loading web asset " + resource + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Gets the ETag of the uncompressed body (the gzip body's tag has a "-gz" suffix)
+   */
+  public String getEtag() {
+    return etag;
+  }
+
+  /**
+   * Sends the asset, or 304 if the client's copy is current
+   *
+   * @param exchange A GET or HEAD exchange
+   */
+  public void serve(HttpExchange exchange) throws IOException {
+    boolean gzip = gzipped != null && acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+    // Each encoding is a different representation, so it gets its own strong validator
+    String tag = gzip ? gzipEtag : etag;
+    exchange.getResponseHeaders().set("ETag", tag);
+    exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+    if (gzipped != null) {
+      exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+    }
+    if (WebServer.matchesEtag(exchange.getRequestHeaders().getFirst("If-None-Match"), tag)) {
+      exchange.sendResponseHeaders(304, -1);
+      exchange.close();
+      return;
+    }
+
+    byte[] body = bytes;
+    if (gzip) {
+      body = gzipped;
+      exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+    }
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    if ("HEAD".equalsIgnoreCase(exchange.getRequestMethod())) {
+      exchange.getResponseHeaders().set("Content-Length", Integer.toString(body.length));
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+      return;
+    }
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(body);
+    }
+  }
+
+  /**
+   * Whether an Accept-Encoding header allows gzip (a "q=0" weight refuses it)
+   *
+   * @param acceptEncoding The header value, may be null
+   * @return true if a gzip body may be sent
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String part : acceptEncoding.split(",")) {
+      String[] params = part.split(";");
+      String coding = params[0].trim();
+      if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+        continue;
+      }
+      for (int i = 1; i < params.length; i++) {
+        String param = params[i].trim();
+        if (param.startsWith("q=")) {
+          try {
+            return Double.parseDouble(param.substring(2)) > 0;
+          } catch (NumberFormatException e) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private static String hash(byte[] bytes) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+      StringBuilder sb = new StringBuilder(16);
+      for (int i = 0; i < 8; i++) {
+        sb.append(Character.forDigit((digest[i] >> 4) & 0xf, 16)).append(Character.forDigit(digest[i] & 0xf, 16));
+      }
+      return sb.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -1,29 +1,53 @@
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 /**
  * Task class represents a single to-do item with title, category, completion status, and timestamp
+ * Timestamps are kept as epoch milliseconds and only formatted for display and tasks.json
  */
 public class Task {
+    public static final long NO_TIMESTAMP = -1;
+    
+    // Shared display/serialization format, interpreted in the system time zone
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    
+    private long id;
     private String title;
     private String category;
     private boolean completed;
-    private String createdAt;
-    private String completedAt;
+    private long createdAt = NO_TIMESTAMP;
+    private long completedAt = NO_TIMESTAMP;
     
     // Constructor
     public Task(String title, String category) {
         this.title = title;
         this.category = category;
         this.completed = false;
-        this.createdAt = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        this.completedAt = null;
+        this.createdAt = System.currentTimeMillis();
+        this.completedAt = NO_TIMESTAMP;
     }
     
     // Default constructor for Gson
     public Task() {}
     
+    // Copy constructor
+    public Task(Task other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.category = other.category;
+        this.completed = other.completed;
+        this.createdAt = other.createdAt;
+        this.completedAt = other.completedAt;
+    }
+    
     // Getters
+    public long getId() {
+        return id;
+    }
+    
     public String getTitle() {
         return title;
     }
@@ -36,15 +60,29 @@ public class Task {
         return completed;
     }
     
-    public String getCreatedAt() {
+    public long getCreatedAtMillis() {
         return createdAt;
     }
     
-    public String getCompletedAt() {
+    public long getCompletedAtMillis() {
         return completedAt;
     }
     
+    // Formatted as yyyy-MM-dd HH:mm:ss, or null if not set
+    public String getCreatedAt() {
+        return formatTimestamp(createdAt);
+    }
+    
+    // Formatted as yyyy-MM-dd HH:mm:ss, or null if not completed
+    public String getCompletedAt() {
+        return formatTimestamp(completedAt);
+    }
+    
     // Setters
+    public void setId(long id) {
+        this.id = id;
+    }
+    
     public void setTitle(String title) {
         this.title = title;
     }
@@ -55,21 +93,91 @@ public class Task {
     
     public void setCompleted(boolean completed) {
         this.completed = completed;
-        if (completed && this.completedAt == null) {
-            this.completedAt = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        if (completed && this.completedAt == NO_TIMESTAMP) {
+            this.completedAt = System.currentTimeMillis();
         } else if (!completed) {
-            this.completedAt = null;
+            this.completedAt = NO_TIMESTAMP;
         }
     }
     
-    public void setCreatedAt(String createdAt) {
+    public void setCreatedAtMillis(long createdAt) {
         this.createdAt = createdAt;
     }
     
-    public void setCompletedAt(String completedAt) {
+    public void setCompletedAtMillis(long completedAt) {
         this.completedAt = completedAt;
     }
     
+    // Accepts yyyy-MM-dd HH:mm:ss; null or unparseable clears the timestamp
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = parseTimestamp(createdAt);
+    }
+    
+    // Accepts yyyy-MM-dd HH:mm:ss; null or unparseable clears the timestamp
+    public void setCompletedAt(String completedAt) {
+        this.completedAt = parseTimestamp(completedAt);
+    }
+    
+    /**
+     * Formats epoch milliseconds in the tasks.json timestamp format
+     * 
+     * @param epochMillis The timestamp, or NO_TIMESTAMP
+     * @return The formatted timestamp, or null for NO_TIMESTAMP
+     */
+    public static String formatTimestamp(long epochMillis) {
+        if (epochMillis == NO_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()).format(TIMESTAMP_FORMAT);
+    }
+    
+    /**
+     * Appends a timestamp exactly as formatTimestamp() would, without the formatter
+     * 
+     * @param sb The output
+     * @param epochMillis The timestamp, or NO_TIMESTAMP (appended as "null")
+     * @return sb
+     */
+    public static StringBuilder appendTimestamp(StringBuilder sb, long epochMillis) {
+        if (epochMillis == NO_TIMESTAMP) {
+            return sb.append((String) null);
+        }
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+        if (time.getYear() < 1 || time.getYear() > 9999) {
+            return sb.append(time.format(TIMESTAMP_FORMAT));
+        }
+        appendDigits(sb, time.getYear(), 4).append('-');
+        appendDigits(sb, time.getMonthValue(), 2).append('-');
+        appendDigits(sb, time.getDayOfMonth(), 2).append(' ');
+        appendDigits(sb, time.getHour(), 2).append(':');
+        appendDigits(sb, time.getMinute(), 2).append(':');
+        return appendDigits(sb, time.getSecond(), 2);
+    }
+    
+    private static StringBuilder appendDigits(StringBuilder sb, int value, int width) {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            sb.append((char) ('0' + value / divisor % 10));
+        }
+        return sb;
+    }
+    
+    /**
+     * Parses a timestamp in the tasks.json format
+     * 
+     * @param timestamp The formatted timestamp
+     * @return Epoch milliseconds, or NO_TIMESTAMP if the value is null or unparseable
+     */
+    public static long parseTimestamp(String timestamp) {
+        if (timestamp == null) {
+            return NO_TIMESTAMP;
+        }
+        try {
+            return LocalDateTime.parse(timestamp, TIMESTAMP_FORMAT).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return NO_TIMESTAMP;
+        }
+    }
+    
     // Mark task as complete
     public void markComplete() {
         setCompleted(true);
@@ -87,12 +195,12 @@ public class Task {
     
     // Get category emoji
     public String getCategoryEmoji() {
-        switch (category.toLowerCase()) {
-            case "work":
+        switch (Category.fromName(category)) {
+            case WORK:
                 return "💼";
-            case "personal":
+            case PERSONAL:
                 return "👤";
-            case "urgent":
+            case URGENT:
                 return "🚨";
             default:
                 return "📝";
@@ -101,15 +209,26 @@ public class Task {
     
     @Override
     public String toString() {
-        return String.format("%s %s [%s%s] - %s (Created: %s)%s",
-            getStatusEmoji(),
-            title,
-            getCategoryEmoji(),
-            category,
-            completed ? "COMPLETED" : "PENDING",
-            createdAt,
-            completed && completedAt != null ? " (Completed: " + completedAt + ")" : ""
-        );
+        return appendTo(new StringBuilder(128)).toString();
+    }
+    
+    /**
+     * Appends the same text as toString() without formatting through String.format
+     * 
+     * @param sb The output
+     * @return sb
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        sb.append(getStatusEmoji()).append(' ').append(title)
+            .append(" [").append(getCategoryEmoji()).append(category).append("] - ")
+            .append(completed ? "COMPLETED" : "PENDING")
+            .append(" (Created: ");
+        appendTimestamp(sb, createdAt).append(')');
+        if (completed && completedAt != NO_TIMESTAMP) {
+            sb.append(" (Completed: ");
+            appendTimestamp(sb, completedAt).append(')');
+        }
+        return sb;
     }
     
     // Simple string representation for display
@@ -0,0 +1,606 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * TaskColumns keeps tasks as columns of primitive arrays instead of one object per task
+ * (enabled with -Dtodo.columnar=true)
+ *
+ * Per task it stores the ID, both timestamps, a completion bit, a category ordinal and
+ * the offset and length of the UTF-8 title in one shared byte arena: about 33 bytes plus
+ * the title, and nothing for the garbage collector to trace. Task objects are created
+ * only when a caller asks for one; they are detached copies of a row.
+ *
+ * TaskManager uses this class as its task map (the writer side, under its write lock)
+ * and publishes an immutable View with every snapshot. Views share arrays with the
+ * writer: appends only write past the end of every published view, and the first
+ * in-place change to a column after a publish copies that column. Task IDs must ascend
+ * in insertion order, which TaskManager guarantees for new tasks, so lookups are binary
+ * searches. Categories are stored as Category ordinals, so (as in tasks.bin) unknown
+ * category names become General.
+ *
+ * Copy-on-write makes in-place writes O(N) once a view is out. Completing or
+ * recategorizing a task copies the one or two columns it changes. A delete shifts the
+ * later rows of every column, so it copies all of them; only the title arena is kept.
+ * TaskManager publishes after every change, so each delete copies about 33 bytes per
+ * task, while a bulk delete (values().removeIf, as clearing completed tasks does) copies
+ * once for all of its rows. Appends stay amortized O(1). Workloads with many single
+ * deletes on a large list are better served by the default object map.
+ */
+public class TaskColumns extends AbstractMap<Long, Task> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_ARENA_BYTES = 1024;
+
+    // Columns the writer may change in place (bit set) or must copy first (bit clear)
+    private static final int IDS = 1;
+    private static final int CREATED_AT = 1 << 1;
+    private static final int COMPLETED_AT = 1 << 2;
+    private static final int COMPLETED = 1 << 3;
+    private static final int CATEGORIES = 1 << 4;
+    private static final int TITLES = 1 << 5;
+    private static final int ALL = (1 << 6) - 1;
+
+    private final Columns columns = new Columns(INITIAL_CAPACITY, INITIAL_ARENA_BYTES);
+    private int size;
+    private int arenaUsed;
+    private long deadTitleBytes;
+    private int owned = ALL;
+
+    /**
+     * Copies tasks into a new columnar map
+     *
+     * @param tasks The tasks in display order
+     * @return The map
+     * @throws IllegalArgumentException If the task IDs do not ascend
+     */
+    public static TaskColumns of(Collection<Task> tasks) {
+        TaskColumns result = new TaskColumns();
+        for (Task task : tasks) {
+            result.put(task.getId(), task);
+        }
+        return result;
+    }
+
+    /**
+     * Reads the records of a tasks.bin file straight into a new columnar map
+     * Titles are copied into the arena as UTF-8 bytes, so no Task or String is created per record
+     *
+     * @param cursor A cursor positioned before the first record
+     * @return The map
+     * @throws IllegalArgumentException If the task IDs do not ascend
+     */
+    public static TaskColumns read(BinaryTaskStore.RecordCursor cursor) throws IOException {
+        TaskColumns result = new TaskColumns();
+        while (cursor.next()) {
+            long id = cursor.getId();
+            result.checkAscending(id);
+            int row = result.appendRow(id, cursor.getCreatedAtMillis(), cursor.getCompletedAtMillis(),
+                cursor.isCompleted(), cursor.getCategory());
+            result.writeTitle(row, cursor.getTitleBytes());
+            result.size++;
+        }
+        return result;
+    }
+
+    /**
+     * Publishes the current contents as an immutable view
+     * Caller holds TaskManager's write lock
+     *
+     * @return The view
+     */
+    public View publish() {
+        owned = 0;
+        return new View(columns.copy(), size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Long && columns.rowOf((Long) key, size) >= 0;
+    }
+
+    @Override
+    public Task get(Object key) {
+        if (!(key instanceof Long)) {
+            return null;
+        }
+        int row = columns.rowOf((Long) key, size);
+        return row < 0 ? null : columns.toTask(row);
+    }
+
+    @Override
+    public Task put(Long id, Task task) {
+        int row = columns.rowOf(id, size);
+        if (row >= 0) {
+            Task previous = columns.toTask(row);
+            update(row, task);
+            return previous;
+        }
+        checkAscending(id);
+        append(id, task);
+        return null;
+    }
+
+    private void checkAscending(long id) {
+        if (size > 0 && id <= columns.ids[size - 1]) {
+            throw new IllegalArgumentException("Columnar task storage needs ascending task IDs, got " + id
+                + " after " + columns.ids[size - 1]);
+        }
+    }
+
+    @Override
+    public Task remove(Object key) {
+        if (!(key instanceof Long)) {
+            return null;
+        }
+        int row = columns.rowOf((Long) key, size);
+        if (row < 0) {
+            return null;
+        }
+        Task previous = columns.toTask(row);
+        removeRow(row);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        boolean[] removed = new boolean[size];
+        Arrays.fill(removed, true);
+        removeRows(removed, 0);
+    }
+
+    @Override
+    public Collection<Task> values() {
+        return new AbstractCollection<Task>() {
+            @Override
+            public Iterator<Task> iterator() {
+                return new RowIterator<Task>() {
+                    @Override
+                    Task at(int row) {
+                        return columns.toTask(row);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            // One compaction pass instead of one per removed task
+            @Override
+            public boolean removeIf(Predicate<? super Task> filter) {
+                boolean[] removed = new boolean[size];
+                int first = -1;
+                for (int row = 0; row < size; row++) {
+                    if (filter.test(columns.toTask(row))) {
+                        removed[row] = true;
+                        first = first < 0 ? row : first;
+                    }
+                }
+                if (first < 0) {
+                    return false;
+                }
+                removeRows(removed, first);
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Long, Task>> entrySet() {
+        return new AbstractSet<Map.Entry<Long, Task>>() {
+            @Override
+            public Iterator<Map.Entry<Long, Task>> iterator() {
+                return new RowIterator<Map.Entry<Long, Task>>() {
+                    @Override
+                    Map.Entry<Long, Task> at(int row) {
+                        return new AbstractMap.SimpleImmutableEntry<>(columns.ids[row], columns.toTask(row));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // Columns that are still shared with a published view are copied before their first change
+    private void own(int column) {
+        if ((owned & column) != 0) {
+            return;
+        }
+        Columns c = columns;
+        switch (column) {
+            case IDS:
+                c.ids = c.ids.clone();
+                break;
+            case CREATED_AT:
+                c.createdAt = c.createdAt.clone();
+                break;
+            case COMPLETED_AT:
+                c.completedAt = c.completedAt.clone();
+                break;
+            case COMPLETED:
+                c.completedBits = c.completedBits.clone();
+                break;
+            case CATEGORIES:
+                c.categories = c.categories.clone();
+                break;
+            case TITLES:
+                c.titleOffsets = c.titleOffsets.clone();
+                c.titleLengths = c.titleLengths.clone();
+                break;
+            default:
+                throw new IllegalStateException("Unknown column: " + column);
+        }
+        owned |= column;
+    }
+
+    private void append(long id, Task task) {
+        int row = appendRow(id, task.getCreatedAtMillis(), task.getCompletedAtMillis(), task.isCompleted(),
+            Category.fromName(task.getCategory()));
+        writeTitle(row, task.getTitle());
+        size++;
+    }
+
+    // Fills every column but the title of the row at index size; the caller writes the title and counts the row
+    private int appendRow(long id, long createdAt, long completedAt, boolean completed, Category category) {
+        Columns c = columns;
+        if (size == c.ids.length) {
+            int capacity = c.ids.length * 2;
+            c.ids = Arrays.copyOf(c.ids, capacity);
+            c.createdAt = Arrays.copyOf(c.createdAt, capacity);
+            c.completedAt = Arrays.copyOf(c.completedAt, capacity);
+            c.completedBits = Arrays.copyOf(c.completedBits, (capacity + 63) >>> 6);
+            c.categories = Arrays.copyOf(c.categories, capacity);
+            c.titleOffsets = Arrays.copyOf(c.titleOffsets, capacity);
+            c.titleLengths = Arrays.copyOf(c.titleLengths, capacity);
+            owned = ALL;
+        }
+        // Writing at index size is safe even in shared columns: no published view reads that far
+        int row = size;
+        c.ids[row] = id;
+        c.createdAt[row] = createdAt;
+        c.completedAt[row] = completedAt;
+        c.setCompleted(row, completed);
+        c.categories[row] = (byte) category.ordinal();
+        return row;
+    }
+
+    private void update(int row, Task task) {
+        Columns c = columns;
+        if (c.createdAt[row] != task.getCreatedAtMillis()) {
+            own(CREATED_AT);
+            c.createdAt[row] = task.getCreatedAtMillis();
+        }
+        if (c.completedAt[row] != task.getCompletedAtMillis()) {
+            own(COMPLETED_AT);
+            c.completedAt[row] = task.getCompletedAtMillis();
+        }
+        if (c.isCompleted(row) != task.isCompleted()) {
+            own(COMPLETED);
+            c.setCompleted(row, task.isCompleted());
+        }
+        byte category = (byte) Category.fromName(task.getCategory()).ordinal();
+        if (c.categories[row] != category) {
+            own(CATEGORIES);
+            c.categories[row] = category;
+        }
+        if (!Objects.equals(c.title(row), task.getTitle())) {
+            own(TITLES);
+            deadTitleBytes += Math.max(c.titleLengths[row], 0);
+            writeTitle(row, task.getTitle());
+        }
+    }
+
+    // Caller owns the title columns, or row is past the end of every published view
+    private void writeTitle(int row, String title) {
+        Columns c = columns;
+        if (title == null) {
+            c.titleOffsets[row] = 0;
+            c.titleLengths[row] = -1;
+            return;
+        }
+        writeTitle(row, ByteBuffer.wrap(title.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Same as writeTitle(int, String) for a title already encoded as UTF-8
+    private void writeTitle(int row, ByteBuffer utf8) {
+        Columns c = columns;
+        int length = utf8.remaining();
+        if (arenaUsed + length > c.arena.length) {
+            if (deadTitleBytes > arenaUsed / 2) {
+                compactArena(row);
+            }
+            if (arenaUsed + length > c.arena.length) {
+                long capacity = Math.max((long) c.arena.length * 2, (long) arenaUsed + length);
+                if (capacity > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Columnar title arena is full");
+                }
+                c.arena = Arrays.copyOf(c.arena, (int) capacity);
+            }
+        }
+        // Like appended rows, new title bytes go past the end of every published view's titles
+        utf8.get(c.arena, arenaUsed, length);
+        c.titleOffsets[row] = arenaUsed;
+        c.titleLengths[row] = length;
+        arenaUsed += length;
+    }
+
+    // Copies live titles into a new arena, skipping the row whose title is being replaced
+    private void compactArena(int skipRow) {
+        own(TITLES);
+        Columns c = columns;
+        byte[] arena = new byte[Math.max(INITIAL_ARENA_BYTES, (int) (arenaUsed - deadTitleBytes) * 2)];
+        int used = 0;
+        for (int row = 0; row < size; row++) {
+            int length = c.titleLengths[row];
+            if (row == skipRow || length < 0) {
+                continue;
+            }
+            System.arraycopy(c.arena, c.titleOffsets[row], arena, used, length);
+            c.titleOffsets[row] = used;
+            used += length;
+        }
+        c.arena = arena;
+        arenaUsed = used;
+        deadTitleBytes = 0;
+    }
+
+    private void removeRow(int row) {
+        own(IDS);
+        own(CREATED_AT);
+        own(COMPLETED_AT);
+        own(COMPLETED);
+        own(CATEGORIES);
+        own(TITLES);
+        Columns c = columns;
+        int tail = size - row - 1;
+        deadTitleBytes += Math.max(c.titleLengths[row], 0);
+        System.arraycopy(c.ids, row + 1, c.ids, row, tail);
+        System.arraycopy(c.createdAt, row + 1, c.createdAt, row, tail);
+        System.arraycopy(c.completedAt, row + 1, c.completedAt, row, tail);
+        System.arraycopy(c.categories, row + 1, c.categories, row, tail);
+        System.arraycopy(c.titleOffsets, row + 1, c.titleOffsets, row, tail);
+        System.arraycopy(c.titleLengths, row + 1, c.titleLengths, row, tail);
+        for (int i = row; i < size - 1; i++) {
+            c.setCompleted(i, c.isCompleted(i + 1));
+        }
+        size--;
+        resetArenaIfEmpty();
+    }
+
+    /**
+     * Deletes rows in one pass, keeping the order of the others
+     *
+     * @param removed Flags by row
+     * @param first The first flagged row (rows before it do not move)
+     */
+    private void removeRows(boolean[] removed, int first) {
+        own(IDS);
+        own(CREATED_AT);
+        own(COMPLETED_AT);
+        own(COMPLETED);
+        own(CATEGORIES);
+        own(TITLES);
+        Columns c = columns;
+        int target = first;
+        for (int row = first; row < size; row++) {
+            if (removed[row]) {
+                deadTitleBytes += Math.max(c.titleLengths[row], 0);
+                continue;
+            }
+            c.ids[target] = c.ids[row];
+            c.createdAt[target] = c.createdAt[row];
+            c.completedAt[target] = c.completedAt[row];
+            c.setCompleted(target, c.isCompleted(row));
+            c.categories[target] = c.categories[row];
+            c.titleOffsets[target] = c.titleOffsets[row];
+            c.titleLengths[target] = c.titleLengths[row];
+            target++;
+        }
+        size = target;
+        resetArenaIfEmpty();
+    }
+
+    // A new arena, since the old one may still back a published view
+    private void resetArenaIfEmpty() {
+        if (size == 0 && arenaUsed > 0) {
+            columns.arena = new byte[INITIAL_ARENA_BYTES];
+            arenaUsed = 0;
+            deadTitleBytes = 0;
+        }
+    }
+
+    /**
+     * Iterates rows in display order; remove() deletes the row last returned
+     */
+    private abstract class RowIterator<T> implements Iterator<T> {
+        private int next;
+        private int last = -1;
+
+        abstract T at(int row);
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public T next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return at(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            removeRow(last);
+            next = last;
+            last = -1;
+        }
+    }
+
+    /**
+     * The arrays backing one version of the table
+     */
+    private static final class Columns {
+        long[] ids;
+        long[] createdAt;
+        long[] completedAt;
+        long[] completedBits;
+        byte[] categories;
+        int[] titleOffsets;
+        int[] titleLengths; // -1 for a null title
+        byte[] arena;
+
+        Columns(int capacity, int arenaBytes) {
+            ids = new long[capacity];
+            createdAt = new long[capacity];
+            completedAt = new long[capacity];
+            completedBits = new long[(capacity + 63) >>> 6];
+            categories = new byte[capacity];
+            titleOffsets = new int[capacity];
+            titleLengths = new int[capacity];
+            arena = new byte[arenaBytes];
+        }
+
+        private Columns(Columns other) {
+            ids = other.ids;
+            createdAt = other.createdAt;
+            completedAt = other.completedAt;
+            completedBits = other.completedBits;
+            categories = other.categories;
+            titleOffsets = other.titleOffsets;
+            titleLengths = other.titleLengths;
+            arena = other.arena;
+        }
+
+        // Copies the array references, not the arrays
+        Columns copy() {
+            return new Columns(this);
+        }
+
+        int rowOf(long id, int size) {
+            int row = Arrays.binarySearch(ids, 0, size, id);
+            return row >= 0 ? row : -1;
+        }
+
+        boolean isCompleted(int row) {
+            return (completedBits[row >>> 6] & (1L << row)) != 0;
+        }
+
+        void setCompleted(int row, boolean completed) {
+            if (completed) {
+                completedBits[row >>> 6] |= 1L << row;
+            } else {
+                completedBits[row >>> 6] &= ~(1L << row);
+            }
+        }
+
+        String title(int row) {
+            int length = titleLengths[row];
+            return length < 0 ? null : new String(arena, titleOffsets[row], length, StandardCharsets.UTF_8);
+        }
+
+        Task toTask(int row) {
+            Task task = new Task();
+            task.setId(ids[row]);
+            task.setTitle(title(row));
+            task.setCategory(Category.fromOrdinal(categories[row]).getDisplayName());
+            task.setCompleted(isCompleted(row));
+            task.setCreatedAtMillis(createdAt[row]);
+            task.setCompletedAtMillis(completedAt[row]);
+            return task;
+        }
+    }
+
+    /**
+     * An immutable list of the tasks at one point in time; tasks are created on access
+     */
+    public static final class View extends AbstractList<Task> implements RandomAccess {
+        private final Columns columns;
+        private final int size;
+
+        private View(Columns columns, int size) {
+            this.columns = columns;
+            this.size = size;
+        }
+
+        @Override
+        public Task get(int index) {
+            Objects.checkIndex(index, size);
+            return columns.toTask(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Gets a task by ID
+         *
+         * @param id The task ID
+         * @return The task, or null if no task has that ID
+         */
+        public Task find(long id) {
+            int row = columns.rowOf(id, size);
+            return row < 0 ? null : columns.toTask(row);
+        }
+
+        /**
+         * Selects tasks by status and category without creating a Task per row
+         *
+         * @param completed true for completed, false for pending, null for both
+         * @param category The category, or null for all
+         * @return Immutable list of matching tasks, created on access
+         */
+        public List<Task> filter(Boolean completed, Category category) {
+            int[] rows = new int[size];
+            int count = 0;
+            for (int row = 0; row < size; row++) {
+                if ((completed == null || columns.isCompleted(row) == completed)
+                        && (category == null || columns.categories[row] == category.ordinal())) {
+                    rows[count++] = row;
+                }
+            }
+            int[] matches = Arrays.copyOf(rows, count);
+            return new RowList(columns, matches);
+        }
+    }
+
+    private static final class RowList extends AbstractList<Task> implements RandomAccess {
+        private final Columns columns;
+        private final int[] rows;
+
+        RowList(Columns columns, int[] rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        @Override
+        public Task get(int index) {
+            return columns.toTask(rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TaskEventStream turns task mutations into Server-Sent Events and fans them out to subscribers
+ *
+ * Events (each with the snapshot revision as SSE id and the new counts as "stats"):
+ *   added      {"revision", "task", "stats"}
+ *   completed  {"revision", "task", "stats"}
+ *   updated    {"revision", "task", "stats"}   reopened or recategorized
+ *   deleted    {"revision", "id", "stats"}
+ *   cleared    {"revision", "stats"}   all completed tasks were removed
+ *   resync     {...}                   the client must reload (bulk import or batch, or it fell behind)
+ *
+ * Each event is encoded once and shared by all subscribers. Every subscriber has a bounded
+ * buffer; a subscriber that is too slow to drain it loses the buffered events and gets a
+ * single resync instead, so one slow client never holds memory or blocks writers.
+ *
+ * Open streams run on their own small pool of "sse-stream" threads, not on the request
+ * executor: serve() hands the exchange over and returns, so subscribers never hold request
+ * handler threads (or the accepting thread, when the request pool runs callers itself).
+ * At most MAX_SUBSCRIBERS streams are open at once; further clients get 503.
+ */
+public class TaskEventStream implements TaskListener {
+  private static final int BUFFER_EVENTS = 256;
+  private static final int MAX_SUBSCRIBERS = 32;
+  private static final long HEARTBEAT_SECONDS = 15;
+  private static final byte[] RESYNC = encode(0, "resync", "{}");
+  private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] CLOSE = new byte[0];
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger open = new AtomicInteger();
+  private final ThreadPoolExecutor streams;
+  private volatile boolean closed;
+
+  public TaskEventStream() {
+    AtomicInteger counter = new AtomicInteger();
+    streams = new ThreadPoolExecutor(MAX_SUBSCRIBERS, MAX_SUBSCRIBERS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        r -> {
+          Thread t = new Thread(r, "sse-stream-" + counter.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        });
+    streams.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  public void taskChanged(TaskMutation mutation, TaskSnapshot snapshot) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    byte[] event = toEvent(mutation, snapshot);
+    for (Subscriber subscriber : subscribers) {
+      subscriber.offer(event);
+    }
+  }
+
+  /**
+   * Starts streaming events to one client on an sse-stream thread and returns at once;
+   * the stream ends when the client disconnects or the stream is closed
+   *
+   * The client is subscribed before the response headers go out, so every change made after
+   * its EventSource opens reaches it
+   *
+   * @param exchange The GET /api/events exchange
+   */
+  public void serve(HttpExchange exchange) throws IOException {
+    if (closed || open.incrementAndGet() > MAX_SUBSCRIBERS) {
+      open.decrementAndGet();
+      exchange.sendResponseHeaders(503, -1);
+      exchange.close();
+      return;
+    }
+    Subscriber subscriber = new Subscriber();
+    subscribers.add(subscriber);
+    try {
+      exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+      exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+      exchange.sendResponseHeaders(200, 0);
+      streams.execute(() -> stream(exchange, subscriber));
+    } catch (IOException | RejectedExecutionException e) {
+      // Client already gone, or the stream was closed meanwhile
+      subscribers.remove(subscriber);
+      open.decrementAndGet();
+      exchange.close();
+    }
+  }
+
+  private void stream(HttpExchange exchange, Subscriber subscriber) {
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write("retry: 3000\n\n".getBytes(StandardCharsets.UTF_8));
+      os.flush();
+      while (!closed) {
+        byte[] event = subscriber.queue.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        if (event == CLOSE) {
+          break;
+        }
+        os.write(event == null ? HEARTBEAT : event);
+        os.flush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      // Client went away
+    } finally {
+      subscribers.remove(subscriber);
+      open.decrementAndGet();
+      exchange.close();
+    }
+  }
+
+  /**
+   * Ends every open stream
+   */
+  public void close() {
+    closed = true;
+    for (Subscriber subscriber : subscribers) {
+      subscriber.offer(CLOSE);
+    }
+    streams.shutdown();
+  }
+
+  private static byte[] toEvent(TaskMutation mutation, TaskSnapshot snapshot) {
+    long revision = snapshot.getRevision();
+    String stats = ",\"stats\":" + WebServer.toJson(snapshot.getStats()) + "}";
+    switch (mutation.getType()) {
+      case ADD:
+        return encode(revision, "added",
+            "{\"revision\":" + revision + ",\"task\":" + WebServer.toJson(mutation.getTask()) + stats);
+      case COMPLETE:
+      case UNCOMPLETE:
+      case RECATEGORIZE:
+        Task changed = snapshot.getTask(mutation.getId());
+        if (changed == null) {
+          return encode(revision, "resync", "{\"revision\":" + revision + stats);
+        }
+        return encode(revision, mutation.getType() == TaskMutation.Type.COMPLETE ? "completed" : "updated",
+            "{\"revision\":" + revision + ",\"task\":" + WebServer.toJson(changed) + stats);
+      case DELETE:
+        return encode(revision, "deleted", "{\"revision\":" + revision + ",\"id\":" + mutation.getId() + stats);
+      case CLEAR_COMPLETED:
+        return encode(revision, "cleared", "{\"revision\":" + revision + stats);
+      default:
+        return encode(revision, "resync", "{\"revision\":" + revision + stats);
+    }
+  }
+
+  private static byte[] encode(long revision, String event, String data) {
+    return ("id: " + revision + "\nevent: " + event + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static final class Subscriber {
+    private final ArrayBlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(BUFFER_EVENTS);
+
+    // Only called by the writer holding TaskManager's write lock, or by close()
+    void offer(byte[] event) {
+      if (!queue.offer(event)) {
+        // Too slow: drop the backlog and make the client reload instead
+        queue.clear();
+        queue.offer(event == CLOSE ? CLOSE : RESYNC);
+      }
+    }
+  }
+}
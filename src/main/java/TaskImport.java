@@ -0,0 +1,88 @@
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TaskImport parses bulk import input and reports how an import went
+ *
+ * Accepted input is either newline-delimited titles or a JSON array whose elements
+ * are title strings or objects with a "title" field. Blank titles are skipped.
+ */
+public class TaskImport {
+    private final int imported;
+    private final int skipped;
+    private final long categorizeNanos;
+    private final long totalNanos;
+
+    TaskImport(int imported, int skipped, long categorizeNanos, long totalNanos) {
+        this.imported = imported;
+        this.skipped = skipped;
+        this.categorizeNanos = categorizeNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * Extracts titles from import input
+     *
+     * @param text Newline-delimited titles or a JSON array
+     * @return The titles, in input order (blank ones included, so they can be counted as skipped)
+     * @throws IllegalArgumentException If the input looks like JSON but is not a valid array
+     */
+    public static List<String> parseTitles(String text) {
+        List<String> titles = new ArrayList<>();
+        String trimmed = text.trim();
+        if (trimmed.startsWith("[")) {
+            try {
+                for (JsonElement element : JsonParser.parseString(trimmed).getAsJsonArray()) {
+                    if (element.isJsonObject()) {
+                        JsonElement title = element.getAsJsonObject().get("title");
+                        titles.add(title == null || title.isJsonNull() ? "" : title.getAsString());
+                    } else {
+                        titles.add(element.isJsonNull() ? "" : element.getAsString());
+                    }
+                }
+            } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+                throw new IllegalArgumentException("Invalid JSON import: " + e.getMessage(), e);
+            }
+            return titles;
+        }
+        for (String line : trimmed.split("\r?\n")) {
+            titles.add(line);
+        }
+        return titles;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public double getCategorizeMillis() {
+        return categorizeNanos / 1e6;
+    }
+
+    public double getTotalMillis() {
+        return totalNanos / 1e6;
+    }
+
+    /**
+     * Gets the import throughput including categorization and the commit
+     *
+     * @return Imported tasks per second
+     */
+    public double getTasksPerSecond() {
+        return imported / (Math.max(totalNanos, 1) / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d tasks imported (%d skipped) in %.0f ms, %.0f ms categorizing (%.0f tasks/s)",
+            imported, skipped, getTotalMillis(), getCategorizeMillis(), getTasksPerSecond());
+    }
+}
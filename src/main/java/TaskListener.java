@@ -0,0 +1,15 @@
+/**
+ * TaskListener is notified after each mutation has been persisted and published
+ * 
+ * Listeners are called by the writing thread while it still holds TaskManager's write
+ * lock, so they see mutations one at a time and in order. They must return quickly
+ * and must not call back into TaskManager's mutating methods.
+ */
+public interface TaskListener {
+    
+    /**
+     * @param mutation The change that was applied
+     * @param snapshot The snapshot published with that change
+     */
+    void taskChanged(TaskMutation mutation, TaskSnapshot snapshot);
+}
@@ -1,24 +1,102 @@
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-
-import java.io.*;
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * TaskManager handles all task operations including CRUD, file I/O, and filtering
+ * 
+ * Thread safety: TaskManager is safe to share between the CLI and web server threads.
+ * - Writers: every mutation runs inside synchronized (writeLock), so changes to the
+ *   task index, their persistence and the publication of the next snapshot happen
+ *   one at a time and in the same order in memory and on disk. Waiting for the store
+ *   to sync happens after the lock is released (see awaitDurable), so concurrent
+ *   writers can share one fsync.
+ * - Readers: read the volatile snapshot field once and work on that immutable
+ *   TaskSnapshot. They never take the lock and never block on writers. The volatile
+ *   write that publishes a snapshot happens-after every change it contains, so a
+ *   reader sees each mutation entirely or not at all.
+ * - Tasks: a Task reachable from a published snapshot is never modified again;
+ *   writers replace it with a changed copy. Callers must not modify returned tasks.
  */
 public class TaskManager {
     private static final String TASKS_FILE = "tasks.json";
-    private List<Task> tasks;
-    private Gson gson;
+    private static final String BINARY_TASKS_FILE = "tasks.bin";
+    private static final long DEFAULT_MAX_STALENESS_MILLIS = 200;
+    private final Object writeLock = new Object();
+    private Map<Long, Task> tasks; // ID -> task, in insertion order; guarded by writeLock
+    private long nextId = 1; // guarded by writeLock
+    private volatile TaskSnapshot snapshot = TaskSnapshot.EMPTY;
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex(); // written under writeLock
+    private final long[] categoryCounts = new long[Category.values().length]; // guarded by writeLock
+    private long completedCount; // guarded by writeLock
+    private final TaskStore store;
+    private final PersistenceMetrics persistenceMetrics = new PersistenceMetrics();
+    private final List<TaskListener> listeners = new java.util.concurrent.CopyOnWriteArrayList<>();
+    private final TaskPrinter printer = new TaskPrinter(System.out);
     
+    /**
+     * Creates a manager using the persistence mode from the todo.persistence system property
+     * ("json" rewrites tasks.json on every change, "wal" appends to a write-ahead log,
+     * "binary" keeps tasks in the memory-mapped tasks.bin format);
+     * -Dtodo.json.compact=true writes tasks.json without indentation,
+     * -Dtodo.json.maxStaleness=MS sets how long "json" mode may delay a write (default 200, 0 = write every change), and
+     * -Dtodo.columnar=true keeps tasks in memory as primitive columns (TaskColumns)
+     */
     public TaskManager() {
-        this.tasks = new ArrayList<>();
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
-        loadTasks();
+        this(createStore(System.getProperty("todo.persistence", "json")), Boolean.getBoolean("todo.columnar"));
+    }
+    
+    public TaskManager(TaskStore store) {
+        this(store, false);
+    }
+    
+    /**
+     * Creates a manager
+     * 
+     * @param store Where tasks are persisted
+     * @param columnar Whether to keep tasks in memory as primitive columns rather than one object per task
+     */
+    public TaskManager(TaskStore store, boolean columnar) {
+        this.tasks = new LinkedHashMap<>();
+        this.store = store;
+        store.setMetrics(persistenceMetrics);
+        synchronized (writeLock) {
+            if (columnar && loadColumns()) {
+                System.out.println("🧮 Columnar task storage enabled");
+            } else {
+                loadTasks();
+                if (columnar) {
+                    try {
+                        tasks = TaskColumns.of(tasks.values());
+                        System.out.println("🧮 Columnar task storage enabled");
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("❌ Columnar task storage disabled: " + e.getMessage());
+                    }
+                }
+            }
+            snapshot = newSnapshot(1);
+        }
+    }
+    
+    /**
+     * Creates the task store for a persistence mode
+     * 
+     * @param mode "json", "wal" or "binary"
+     * @return The task store
+     */
+    public static TaskStore createStore(String mode) {
+        switch (mode.toLowerCase()) {
+            case "wal":
+                return new WriteAheadTaskStore(TASKS_FILE, Boolean.getBoolean("todo.json.compact"));
+            case "json":
+                return new JsonTaskStore(TASKS_FILE, Boolean.getBoolean("todo.json.compact"),
+                    Long.getLong("todo.json.maxStaleness", DEFAULT_MAX_STALENESS_MILLIS));
+            case "binary":
+                return new BinaryTaskStore(BINARY_TASKS_FILE, TASKS_FILE);
+            default:
+                throw new IllegalArgumentException("Unknown persistence mode: " + mode);
+        }
     }
     
     /**
@@ -32,20 +110,162 @@ public class TaskManager {
             throw new IllegalArgumentException("Task title cannot be empty");
         }
         
-        String category = AICategorizer.categorizeTask(title);
-        Task task = new Task(title.trim(), category);
-        tasks.add(task);
-        saveTasks();
+        Categorization categorization = AICategorizer.analyze(title);
+        Task task = new Task(title.trim(), categorization.getCategory());
+        synchronized (writeLock) {
+            insertTask(task);
+            commit(TaskMutation.added(task));
+        }
+        awaitDurable();
         
         System.out.println("\n✅ Task added successfully!");
         System.out.println("📝 Title: " + task.getTitle());
         System.out.println("🏷️  Category: " + task.getCategoryEmoji() + " " + task.getCategory());
-        System.out.println("🎯 Confidence: " + String.format("%.0f%%", AICategorizer.getConfidenceScore(title, category) * 100));
-        System.out.println(AICategorizer.getSuggestion(title));
+        System.out.println("🎯 Confidence: " + String.format("%.0f%%", categorization.getConfidence() * 100));
+        System.out.println(categorization.getSuggestion());
         
         return task;
     }
     
+    /**
+     * Adds many tasks at once: titles are categorized in parallel on the common
+     * ForkJoin pool, then all tasks are inserted and persisted with a single commit
+     * 
+     * @param titles The task titles; blank titles are skipped
+     * @return Counts and timings of the import
+     */
+    public TaskImport importTasks(List<String> titles) {
+        long startNanos = System.nanoTime();
+        List<String> valid = titles.stream()
+            .filter(title -> title != null && !title.trim().isEmpty())
+            .collect(Collectors.toList());
+        
+        String[] categories = new String[valid.size()];
+        IntStream.range(0, valid.size()).parallel()
+            .forEach(i -> categories[i] = AICategorizer.categorizeTask(valid.get(i)));
+        long categorizeNanos = System.nanoTime() - startNanos;
+        
+        List<Task> created = new ArrayList<>(valid.size());
+        for (int i = 0; i < categories.length; i++) {
+            created.add(new Task(valid.get(i).trim(), categories[i]));
+        }
+        if (!created.isEmpty()) {
+            synchronized (writeLock) {
+                for (Task task : created) {
+                    task.setId(nextId++);
+                    tasks.put(task.getId(), task);
+                    count(task, 1);
+                }
+                searchIndex.addAll(created);
+                commit(TaskMutation.addedAll(created));
+            }
+            awaitDurable();
+        }
+        
+        return new TaskImport(created.size(), titles.size() - created.size(),
+            categorizeNanos, System.nanoTime() - startNanos);
+    }
+    
+    /**
+     * Applies a batch of operations in order, under one lock acquisition and with a
+     * single commit, so readers and the task store see all of the changes or none.
+     * An operation that fails (unknown ID, invalid arguments) is reported in its result
+     * and does not stop the others; later operations see the effects of earlier ones.
+     *
+     * @param operations The operations, in order
+     * @return One result per operation, in the same order
+     */
+    public List<TaskOperation.Result> applyOperations(List<TaskOperation> operations) {
+        // Categorize new titles before taking the lock
+        String[] categories = new String[operations.size()];
+        for (int i = 0; i < operations.size(); i++) {
+            TaskOperation operation = operations.get(i);
+            if (operation.getKind() == TaskOperation.Kind.ADD && operation.getTitle() != null
+                    && !operation.getTitle().trim().isEmpty()) {
+                Category manual = Category.lookup(operation.getCategory());
+                categories[i] = manual != null
+                    ? manual.getDisplayName()
+                    : AICategorizer.categorizeTask(operation.getTitle());
+            }
+        }
+    
+        List<TaskOperation.Result> results = new ArrayList<>(operations.size());
+        synchronized (writeLock) {
+            List<TaskMutation> applied = new ArrayList<>();
+            for (int i = 0; i < operations.size(); i++) {
+                results.add(applyOperation(operations.get(i), categories[i], applied));
+            }
+            if (applied.size() == 1) {
+                commit(applied.get(0));
+            } else if (!applied.isEmpty()) {
+                commit(TaskMutation.batch(applied));
+            }
+        }
+        awaitDurable();
+        return results;
+    }
+    
+    // Caller holds writeLock; appends the mutation (if any) to applied without committing it
+    private TaskOperation.Result applyOperation(TaskOperation operation, String category, List<TaskMutation> applied) {
+        if (operation.getKind() == TaskOperation.Kind.ADD) {
+            if (category == null) {
+                return new TaskOperation.Result(operation, TaskOperation.Result.Status.INVALID, null,
+                    "Task title cannot be empty");
+            }
+            Task task = new Task(operation.getTitle().trim(), category);
+            insertTask(task);
+            applied.add(TaskMutation.added(task));
+            return new TaskOperation.Result(operation, TaskOperation.Result.Status.OK, task, null);
+        }
+    
+        Task task = tasks.get(operation.getId());
+        if (task == null) {
+            return new TaskOperation.Result(operation, TaskOperation.Result.Status.NOT_FOUND, null,
+                "No task found with ID " + operation.getId());
+        }
+        Task changed = new Task(task);
+        switch (operation.getKind()) {
+            case COMPLETE:
+                if (task.isCompleted()) {
+                    return new TaskOperation.Result(operation, TaskOperation.Result.Status.UNCHANGED, task, null);
+                }
+                changed.markComplete();
+                applied.add(TaskMutation.completed(changed));
+                break;
+            case UNCOMPLETE:
+                if (!task.isCompleted()) {
+                    return new TaskOperation.Result(operation, TaskOperation.Result.Status.UNCHANGED, task, null);
+                }
+                changed.markIncomplete();
+                applied.add(TaskMutation.uncompleted(task.getId()));
+                break;
+            case RECATEGORIZE:
+                Category newCategory = Category.lookup(operation.getCategory());
+                if (newCategory == null) {
+                    return new TaskOperation.Result(operation, TaskOperation.Result.Status.INVALID, task,
+                        "Unknown category: " + operation.getCategory());
+                }
+                if (newCategory.getDisplayName().equals(task.getCategory())) {
+                    return new TaskOperation.Result(operation, TaskOperation.Result.Status.UNCHANGED, task, null);
+                }
+                changed.setCategory(newCategory.getDisplayName());
+                applied.add(TaskMutation.recategorized(changed));
+                break;
+            case DELETE:
+                tasks.remove(task.getId());
+                searchIndex.remove(task, snapshot.getRevision() + 1);
+                count(task, -1);
+                applied.add(TaskMutation.deleted(task.getId()));
+                return new TaskOperation.Result(operation, TaskOperation.Result.Status.OK, null, null);
+            default:
+                throw new IllegalStateException("Unknown operation: " + operation.getKind());
+        }
+        count(task, -1);
+        count(changed, 1);
+        tasks.put(changed.getId(), changed);
+        return new TaskOperation.Result(operation, TaskOperation.Result.Status.OK, changed, null);
+    }
+    
     /**
      * Adds a task with manual category override
      * 
@@ -64,8 +284,11 @@ public class TaskManager {
         }
         
         Task task = new Task(title.trim(), category);
-        tasks.add(task);
-        saveTasks();
+        synchronized (writeLock) {
+            insertTask(task);
+            commit(TaskMutation.added(task));
+        }
+        awaitDurable();
         
         System.out.println("\n✅ Task added with manual category!");
         System.out.println("📝 Title: " + task.getTitle());
@@ -78,6 +301,7 @@ public class TaskManager {
      * Views all tasks with optional filtering
      */
     public void viewAllTasks() {
+        List<Task> tasks = snapshot.getTasks();
         if (tasks.isEmpty()) {
             System.out.println("\n📭 No tasks found. Add some tasks to get started!");
             return;
@@ -86,9 +310,7 @@ public class TaskManager {
         System.out.println("\n📋 ALL TASKS");
         System.out.println("=" .repeat(50));
         
-        for (int i = 0; i < tasks.size(); i++) {
-            System.out.printf("%d. %s\n", i + 1, tasks.get(i).toString());
-        }
+        printer.printNumbered(tasks);
         
         printTaskSummary();
     }
@@ -99,7 +321,7 @@ public class TaskManager {
      * @param category The category to filter by
      */
     public void viewTasksByCategory(String category) {
-        List<Task> filteredTasks = tasks.stream()
+        List<Task> filteredTasks = snapshot.getTasks().stream()
             .filter(task -> task.getCategory().equalsIgnoreCase(category))
             .collect(Collectors.toList());
         
@@ -111,18 +333,14 @@ public class TaskManager {
         System.out.println("\n📋 TASKS IN CATEGORY: " + category.toUpperCase());
         System.out.println("=" .repeat(50));
         
-        for (int i = 0; i < filteredTasks.size(); i++) {
-            System.out.printf("%d. %s\n", i + 1, filteredTasks.get(i).toString());
-        }
+        printer.printNumbered(filteredTasks);
     }
     
     /**
      * Views only pending tasks
      */
     public void viewPendingTasks() {
-        List<Task> pendingTasks = tasks.stream()
-            .filter(task -> !task.isCompleted())
-            .collect(Collectors.toList());
+        List<Task> pendingTasks = snapshot.getTasks(false, null);
         
         if (pendingTasks.isEmpty()) {
             System.out.println("\n🎉 Congratulations! No pending tasks. You're all caught up!");
@@ -132,18 +350,14 @@ public class TaskManager {
         System.out.println("\n⏳ PENDING TASKS");
         System.out.println("=" .repeat(50));
         
-        for (int i = 0; i < pendingTasks.size(); i++) {
-            System.out.printf("%d. %s\n", i + 1, pendingTasks.get(i).toString());
-        }
+        printer.printNumbered(pendingTasks);
     }
     
     /**
      * Views only completed tasks
      */
     public void viewCompletedTasks() {
-        List<Task> completedTasks = tasks.stream()
-            .filter(Task::isCompleted)
-            .collect(Collectors.toList());
+        List<Task> completedTasks = snapshot.getTasks(true, null);
         
         if (completedTasks.isEmpty()) {
             System.out.println("\n📭 No completed tasks yet. Complete some tasks to see them here!");
@@ -153,9 +367,7 @@ public class TaskManager {
         System.out.println("\n✅ COMPLETED TASKS");
         System.out.println("=" .repeat(50));
         
-        for (int i = 0; i < completedTasks.size(); i++) {
-            System.out.printf("%d. %s\n", i + 1, completedTasks.get(i).toString());
-        }
+        printer.printNumbered(completedTasks);
     }
     
     /**
@@ -165,22 +377,55 @@ public class TaskManager {
      * @return true if successful, false otherwise
      */
     public boolean completeTask(int index) {
-        if (index < 1 || index > tasks.size()) {
-            System.out.println("❌ Invalid task number. Please enter a number between 1 and " + tasks.size());
-            return false;
+        boolean changed;
+        synchronized (writeLock) {
+            if (index < 1 || index > tasks.size()) {
+                System.out.println("❌ Invalid task number. Please enter a number between 1 and " + tasks.size());
+                return false;
+            }
+            
+            changed = markComplete(taskAt(index - 1));
         }
-        
-        Task task = tasks.get(index - 1);
+        awaitDurable();
+        return changed;
+    }
+    
+    /**
+     * Marks a task as complete by ID
+     * 
+     * @param id The task ID
+     * @return true if successful, false otherwise
+     */
+    public boolean completeTaskById(long id) {
+        boolean changed;
+        synchronized (writeLock) {
+            Task task = tasks.get(id);
+            if (task == null) {
+                System.out.println("❌ No task found with ID " + id);
+                return false;
+            }
+            
+            changed = markComplete(task);
+        }
+        awaitDurable();
+        return changed;
+    }
+    
+    // Caller holds writeLock
+    private boolean markComplete(Task task) {
         if (task.isCompleted()) {
             System.out.println("ℹ️  Task is already completed: " + task.getTitle());
             return false;
         }
         
-        task.markComplete();
-        saveTasks();
+        Task completed = new Task(task);
+        completed.markComplete();
+        tasks.put(completed.getId(), completed);
+        completedCount++;
+        commit(TaskMutation.completed(completed));
         
         System.out.println("\n🎉 Task completed successfully!");
-        System.out.println("✅ " + task.getTitle());
+        System.out.println("✅ " + completed.getTitle());
         
         return true;
     }
@@ -192,14 +437,46 @@ public class TaskManager {
      * @return true if successful, false otherwise
      */
     public boolean deleteTask(int index) {
-        if (index < 1 || index > tasks.size()) {
-            System.out.println("❌ Invalid task number. Please enter a number between 1 and " + tasks.size());
-            return false;
+        boolean changed;
+        synchronized (writeLock) {
+            if (index < 1 || index > tasks.size()) {
+                System.out.println("❌ Invalid task number. Please enter a number between 1 and " + tasks.size());
+                return false;
+            }
+            
+            changed = removeTask(taskAt(index - 1));
         }
-        
-        Task task = tasks.get(index - 1);
-        tasks.remove(index - 1);
-        saveTasks();
+        awaitDurable();
+        return changed;
+    }
+    
+    /**
+     * Deletes a task by ID
+     * 
+     * @param id The task ID
+     * @return true if successful, false otherwise
+     */
+    public boolean deleteTaskById(long id) {
+        boolean changed;
+        synchronized (writeLock) {
+            Task task = tasks.get(id);
+            if (task == null) {
+                System.out.println("❌ No task found with ID " + id);
+                return false;
+            }
+            
+            changed = removeTask(task);
+        }
+        awaitDurable();
+        return changed;
+    }
+    
+    // Caller holds writeLock
+    private boolean removeTask(Task task) {
+        tasks.remove(task.getId());
+        searchIndex.remove(task, snapshot.getRevision() + 1);
+        count(task, -1);
+        commit(TaskMutation.deleted(task.getId()));
         
         System.out.println("\n🗑️  Task deleted successfully!");
         System.out.println("❌ " + task.getTitle());
@@ -207,6 +484,85 @@ public class TaskManager {
         return true;
     }
     
+    /**
+     * Gets a task by ID
+     * 
+     * @param id The task ID
+     * @return The task, or null if no task has that ID
+     */
+    public Task getTaskById(long id) {
+        return snapshot.getTask(id);
+    }
+    
+    /**
+     * Gets the task at a display position (O(n), used by the numbered CLI menus)
+     * 
+     * @param position The 0-based position in insertion order
+     * @return The task at that position
+     */
+    // Caller holds writeLock
+    private Task taskAt(int position) {
+        if (tasks instanceof TaskColumns) {
+            return snapshot.getTasks().get(position);
+        }
+        Iterator<Task> iterator = tasks.values().iterator();
+        for (int i = 0; i < position; i++) {
+            iterator.next();
+        }
+        return iterator.next();
+    }
+    
+    /**
+     * Assigns the next ID to a new task and indexes it
+     * 
+     * @param task The new task
+     */
+    // Caller holds writeLock
+    private void insertTask(Task task) {
+        task.setId(nextId++);
+        tasks.put(task.getId(), task);
+        searchIndex.add(task);
+        count(task, 1);
+    }
+    
+    /**
+     * Adds a task to (delta 1) or removes it from (delta -1) the summary counters
+     */
+    // Caller holds writeLock
+    private void count(Task task, int delta) {
+        categoryCounts[Category.fromName(task.getCategory()).ordinal()] += delta;
+        if (task.isCompleted()) {
+            completedCount += delta;
+        }
+    }
+    
+    // Caller holds writeLock
+    private TaskStats currentStats() {
+        return new TaskStats(tasks.size(), completedCount, categoryCounts.clone());
+    }
+    
+    /**
+     * Finds tasks whose title contains the given text (case-insensitive) using the search index
+     * 
+     * @param query The text to look for
+     * @return Matching tasks in display order
+     */
+    public List<Task> findTasks(String query) {
+        return searchIndex.search(query, snapshot);
+    }
+    
+    /**
+     * Finds matching tasks among those in a given snapshot, so a response can pair
+     * the results with that snapshot's revision
+     * 
+     * @param query The text to look for
+     * @param snapshot A snapshot obtained from getSnapshot()
+     * @return Matching tasks in display order
+     */
+    public List<Task> findTasks(String query, TaskSnapshot snapshot) {
+        return searchIndex.search(query, snapshot);
+    }
+    
     /**
      * Searches tasks by keyword
      * 
@@ -218,9 +574,7 @@ public class TaskManager {
             return;
         }
         
-        List<Task> matchingTasks = tasks.stream()
-            .filter(task -> task.getTitle().toLowerCase().contains(keyword.toLowerCase()))
-            .collect(Collectors.toList());
+        List<Task> matchingTasks = findTasks(keyword);
         
         if (matchingTasks.isEmpty()) {
             System.out.println("\n🔍 No tasks found matching: " + keyword);
@@ -230,79 +584,209 @@ public class TaskManager {
         System.out.println("\n🔍 SEARCH RESULTS FOR: " + keyword);
         System.out.println("=" .repeat(50));
         
-        for (int i = 0; i < matchingTasks.size(); i++) {
-            System.out.printf("%d. %s\n", i + 1, matchingTasks.get(i).toString());
-        }
+        printer.printNumbered(matchingTasks);
     }
     
     /**
      * Prints task summary statistics
      */
     public void printTaskSummary() {
-        int total = tasks.size();
-        int completed = (int) tasks.stream().filter(Task::isCompleted).count();
-        int pending = total - completed;
-        
-        Map<String, Long> categoryCount = tasks.stream()
-            .collect(Collectors.groupingBy(Task::getCategory, Collectors.counting()));
+        TaskStats stats = snapshot.getStats();
         
         System.out.println("\n📊 TASK SUMMARY");
         System.out.println("-" .repeat(30));
-        System.out.println("📝 Total Tasks: " + total);
-        System.out.println("✅ Completed: " + completed);
-        System.out.println("⏳ Pending: " + pending);
+        System.out.println("📝 Total Tasks: " + stats.getTotal());
+        System.out.println("✅ Completed: " + stats.getCompleted());
+        System.out.println("⏳ Pending: " + stats.getPending());
         
-        if (!categoryCount.isEmpty()) {
+        if (stats.getTotal() > 0) {
             System.out.println("\n📂 By Category:");
-            categoryCount.forEach((category, count) -> {
-                String emoji = getEmojiForCategory(category);
-                System.out.println("   " + emoji + " " + category + ": " + count);
-            });
+            for (Category category : Category.values()) {
+                long count = stats.getCount(category);
+                if (count > 0) {
+                    String emoji = getEmojiForCategory(category.getDisplayName());
+                    System.out.println("   " + emoji + " " + category.getDisplayName() + ": " + count);
+                }
+            }
+            System.out.printf("\n🎯 Completion Rate: %.1f%%\n", stats.getCompletionRate());
         }
-        
-        if (total > 0) {
-            double completionRate = (double) completed / total * 100;
-            System.out.printf("\n🎯 Completion Rate: %.1f%%\n", completionRate);
+    }
+    
+    /**
+     * Loads tasks from the task store straight into columns, if the store can (see TaskStore.loadColumns)
+     * 
+     * @return false if the store cannot, or its task IDs do not ascend; loadTasks() must run instead
+     */
+    private boolean loadColumns() {
+        long startNanos = System.nanoTime();
+        TaskColumns loaded;
+        try {
+            loaded = store.loadColumns();
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (IOException e) {
+            persistenceMetrics.record(PersistenceMetrics.LOAD, System.nanoTime() - startNanos, true);
+            System.err.println("❌ Error loading tasks: " + e.getMessage());
+            tasks = new TaskColumns();
+            return true;
+        }
+        if (loaded == null) {
+            return false;
+        }
+        persistenceMetrics.record(PersistenceMetrics.LOAD, System.nanoTime() - startNanos, false);
+        
+        tasks = loaded;
+        if (!loaded.isEmpty()) {
+            // Tasks are created one at a time here and dropped again; only the columns are kept
+            for (Task task : loaded.values()) {
+                count(task, 1);
+                nextId = Math.max(nextId, task.getId() + 1);
+            }
+            searchIndex.addAll(loaded.values());
+            double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+            System.out.printf("📂 Loaded %d tasks from %s in %.0f ms (%.0f tasks/s)%n",
+                loaded.size(), store.getLocation(), seconds * 1000, loaded.size() / seconds);
         }
+        return true;
     }
     
     /**
-     * Loads tasks from JSON file
+     * Loads tasks from the task store
      */
     private void loadTasks() {
-        File file = new File(TASKS_FILE);
-        if (!file.exists()) {
-            System.out.println("📁 Creating new tasks file: " + TASKS_FILE);
-            return;
-        }
-        
-        try (FileReader reader = new FileReader(file)) {
-            Type taskListType = new TypeToken<List<Task>>(){}.getType();
-            List<Task> loadedTasks = gson.fromJson(reader, taskListType);
+        long startNanos = System.nanoTime();
+        try {
+            List<Task> loadedTasks = store.load();
+            persistenceMetrics.record(PersistenceMetrics.LOAD, System.nanoTime() - startNanos, false);
             
-            if (loadedTasks != null) {
-                this.tasks = loadedTasks;
-                System.out.println("📂 Loaded " + tasks.size() + " tasks from " + TASKS_FILE);
+            if (!loadedTasks.isEmpty()) {
+                for (Task task : loadedTasks) {
+                    Task duplicate = tasks.put(task.getId(), task);
+                    if (duplicate != null) {
+                        count(duplicate, -1);
+                    }
+                    count(task, 1);
+                    nextId = Math.max(nextId, task.getId() + 1);
+                }
+                searchIndex.addAll(tasks.values());
+                double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+                System.out.printf("📂 Loaded %d tasks from %s in %.0f ms (%.0f tasks/s)%n",
+                    tasks.size(), store.getLocation(), seconds * 1000, tasks.size() / seconds);
             }
         } catch (IOException e) {
+            persistenceMetrics.record(PersistenceMetrics.LOAD, System.nanoTime() - startNanos, true);
             System.err.println("❌ Error loading tasks: " + e.getMessage());
         } catch (Exception e) {
+            persistenceMetrics.record(PersistenceMetrics.LOAD, System.nanoTime() - startNanos, true);
             System.err.println("❌ Error parsing tasks file: " + e.getMessage());
             System.out.println("🔄 Starting with empty task list");
         }
     }
     
     /**
-     * Saves tasks to JSON file
+     * Hands a mutation to the store and publishes the resulting snapshot to readers
+     * Caller holds writeLock and calls awaitDurable() after releasing it
+     * 
+     * @param mutation The change that was just applied to the task index
+     */
+    private void commit(TaskMutation mutation) {
+        TaskSnapshot next = newSnapshot(snapshot.getRevision() + 1);
+        int operation = PersistenceMetrics.commitOperation(mutation.getType());
+        long startNanos = System.nanoTime();
+        try {
+            store.commit(mutation, next.getTasks());
+            persistenceMetrics.record(operation, System.nanoTime() - startNanos, false);
+        } catch (IOException e) {
+            persistenceMetrics.record(operation, System.nanoTime() - startNanos, true);
+            System.err.println("❌ Error saving tasks: " + e.getMessage());
+        }
+        snapshot = next;
+        
+        for (TaskListener listener : listeners) {
+            try {
+                listener.taskChanged(mutation, next);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Error notifying task listener: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Waits until the store has synced every change committed so far
+     * Called after releasing writeLock, so writers that commit during an fsync are covered
+     * by the next one rather than each queueing behind the lock for their own
      */
-    private void saveTasks() {
-        try (FileWriter writer = new FileWriter(TASKS_FILE)) {
-            gson.toJson(tasks, writer);
+    private void awaitDurable() {
+        long startNanos = System.nanoTime();
+        try {
+            store.sync();
+            persistenceMetrics.record(PersistenceMetrics.SYNC, System.nanoTime() - startNanos, false);
         } catch (IOException e) {
+            persistenceMetrics.record(PersistenceMetrics.SYNC, System.nanoTime() - startNanos, true);
             System.err.println("❌ Error saving tasks: " + e.getMessage());
         }
     }
     
+    // Caller holds writeLock
+    private TaskSnapshot newSnapshot(long revision) {
+        if (tasks instanceof TaskColumns) {
+            return new TaskSnapshot(revision, ((TaskColumns) tasks).publish(), currentStats());
+        }
+        return new TaskSnapshot(revision, tasks.values(), currentStats());
+    }
+    
+    /**
+     * Registers a listener for task changes
+     * 
+     * @param listener The listener
+     */
+    public void addListener(TaskListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Unregisters a listener
+     * 
+     * @param listener The listener
+     */
+    public void removeListener(TaskListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Gets a future that completes once every change made so far is on disk
+     * Stores that write behind (tasks.json by default) save changes shortly after they are
+     * made; callers that need a change to survive a crash can wait on this future
+     * 
+     * @return The future; it completes exceptionally if the write fails
+     */
+    public java.util.concurrent.CompletableFuture<Void> whenPersisted() {
+        return store.whenDurable();
+    }
+    
+    /**
+     * Flushes and closes the task store
+     */
+    public void close() {
+        long startNanos = System.nanoTime();
+        try {
+            store.close();
+            persistenceMetrics.record(PersistenceMetrics.CLOSE, System.nanoTime() - startNanos, false);
+        } catch (IOException e) {
+            persistenceMetrics.record(PersistenceMetrics.CLOSE, System.nanoTime() - startNanos, true);
+            System.err.println("❌ Error closing task store: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Gets the latency and error counts of task store operations
+     * 
+     * @return The persistence metrics
+     */
+    public PersistenceMetrics getPersistenceMetrics() {
+        return persistenceMetrics;
+    }
+    
     /**
      * Validates if a category is valid
      * 
@@ -336,7 +820,7 @@ public class TaskManager {
      * @return The total task count
      */
     public int getTaskCount() {
-        return tasks.size();
+        return snapshot.size();
     }
     
     /**
@@ -345,7 +829,17 @@ public class TaskManager {
      * @return Unmodifiable list of tasks
      */
     public List<Task> getTasks() {
-        return Collections.unmodifiableList(tasks);
+        return snapshot.getTasks();
+    }
+    
+    /**
+     * Gets the current snapshot of all tasks
+     * The snapshot is rebuilt only when tasks change, so this never copies
+     * 
+     * @return The latest published snapshot
+     */
+    public TaskSnapshot getSnapshot() {
+        return snapshot;
     }
     
     /**
@@ -354,12 +848,26 @@ public class TaskManager {
      * @return Number of tasks cleared
      */
     public int clearCompletedTasks() {
-        int initialSize = tasks.size();
-        tasks.removeIf(Task::isCompleted);
-        int removedCount = initialSize - tasks.size();
+        int removedCount;
+        synchronized (writeLock) {
+            int initialSize = tasks.size();
+            tasks.values().removeIf(task -> {
+                if (task.isCompleted()) {
+                    searchIndex.remove(task, snapshot.getRevision() + 1);
+                    count(task, -1);
+                    return true;
+                }
+                return false;
+            });
+            removedCount = initialSize - tasks.size();
+            
+            if (removedCount > 0) {
+                commit(TaskMutation.completedCleared());
+            }
+        }
+        awaitDurable();
         
         if (removedCount > 0) {
-            saveTasks();
             System.out.println("\n🧹 Cleared " + removedCount + " completed task(s)");
         } else {
             System.out.println("\n📭 No completed tasks to clear");
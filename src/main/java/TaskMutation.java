@@ -0,0 +1,180 @@
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TaskMutation describes one change to the task list
+ * Mutations are written to the write-ahead log and replayed in order at startup
+ */
+public class TaskMutation {
+    
+    public enum Type {
+        ADD, COMPLETE, DELETE, CLEAR_COMPLETED, ADD_ALL, UNCOMPLETE, RECATEGORIZE, BATCH
+    }
+    
+    private Type type;
+    private long id;
+    private Task task;
+    private List<Task> addedTasks;
+    private List<TaskMutation> mutations;
+    private String category;
+    private long completedAt = Task.NO_TIMESTAMP;
+    
+    // Default constructor for Gson
+    private TaskMutation() {}
+    
+    private TaskMutation(Type type, long id, Task task, long completedAt) {
+        this.type = type;
+        this.id = id;
+        this.task = task;
+        this.completedAt = completedAt;
+    }
+    
+    public static TaskMutation added(Task task) {
+        return new TaskMutation(Type.ADD, task.getId(), task, Task.NO_TIMESTAMP);
+    }
+    
+    /**
+     * Creates one mutation for a bulk import, so it is persisted with a single write
+     * 
+     * @param tasks The new tasks, with IDs assigned
+     * @return The mutation
+     */
+    public static TaskMutation addedAll(List<Task> tasks) {
+        TaskMutation mutation = new TaskMutation(Type.ADD_ALL, 0, null, Task.NO_TIMESTAMP);
+        mutation.addedTasks = List.copyOf(tasks);
+        return mutation;
+    }
+    
+    public static TaskMutation completed(Task task) {
+        return new TaskMutation(Type.COMPLETE, task.getId(), null, task.getCompletedAtMillis());
+    }
+    
+    public static TaskMutation uncompleted(long id) {
+        return new TaskMutation(Type.UNCOMPLETE, id, null, Task.NO_TIMESTAMP);
+    }
+    
+    public static TaskMutation recategorized(Task task) {
+        TaskMutation mutation = new TaskMutation(Type.RECATEGORIZE, task.getId(), null, Task.NO_TIMESTAMP);
+        mutation.category = task.getCategory();
+        return mutation;
+    }
+    
+    /**
+     * Groups mutations that were applied together, so they are persisted with a single write
+     * 
+     * @param mutations The mutations, in the order they were applied
+     * @return The mutation
+     */
+    public static TaskMutation batch(List<TaskMutation> mutations) {
+        TaskMutation mutation = new TaskMutation(Type.BATCH, 0, null, Task.NO_TIMESTAMP);
+        mutation.mutations = List.copyOf(mutations);
+        return mutation;
+    }
+    
+    public static TaskMutation deleted(long id) {
+        return new TaskMutation(Type.DELETE, id, null, Task.NO_TIMESTAMP);
+    }
+    
+    public static TaskMutation completedCleared() {
+        return new TaskMutation(Type.CLEAR_COMPLETED, 0, null, Task.NO_TIMESTAMP);
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    /**
+     * Gets the ID of the task the mutation targets
+     * 
+     * @return The task ID, or 0 for mutations that do not target a single task
+     */
+    public long getId() {
+        return id;
+    }
+    
+    public Task getTask() {
+        return task;
+    }
+    
+    /**
+     * Gets the tasks added by an ADD_ALL mutation
+     * 
+     * @return The tasks, or null for other mutation types
+     */
+    public List<Task> getAddedTasks() {
+        return addedTasks;
+    }
+    
+    /**
+     * Gets the mutations grouped by a BATCH mutation
+     * 
+     * @return The mutations in order, or null for other mutation types
+     */
+    public List<TaskMutation> getMutations() {
+        return mutations;
+    }
+    
+    /**
+     * Gets the new category set by a RECATEGORIZE mutation
+     * 
+     * @return The category, or null for other mutation types
+     */
+    public String getCategory() {
+        return category;
+    }
+    
+    public long getCompletedAtMillis() {
+        return completedAt;
+    }
+    
+    /**
+     * Replays this mutation on a task index
+     * Replaying a mutation that was already applied leaves the tasks unchanged
+     * 
+     * @param tasks Tasks by ID, in insertion order
+     */
+    public void applyTo(Map<Long, Task> tasks) {
+        switch (type) {
+            case ADD:
+                tasks.put(task.getId(), task);
+                break;
+            case ADD_ALL:
+                for (Task added : addedTasks) {
+                    tasks.put(added.getId(), added);
+                }
+                break;
+            case COMPLETE:
+                Task target = tasks.get(id);
+                if (target != null) {
+                    target.setCompleted(true);
+                    target.setCompletedAtMillis(completedAt);
+                }
+                break;
+            case UNCOMPLETE:
+                Task reopened = tasks.get(id);
+                if (reopened != null) {
+                    reopened.setCompleted(false);
+                }
+                break;
+            case RECATEGORIZE:
+                Task recategorized = tasks.get(id);
+                if (recategorized != null) {
+                    recategorized.setCategory(category);
+                }
+                break;
+            case DELETE:
+                tasks.remove(id);
+                break;
+            case BATCH:
+                for (TaskMutation mutation : mutations) {
+                    mutation.applyTo(tasks);
+                }
+                break;
+            case CLEAR_COMPLETED:
+                tasks.values().removeIf(Task::isCompleted);
+                break;
+            default:
+                throw new IllegalStateException("Unknown mutation type: " + type);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TaskOperation is one entry of a batched change request (POST /api/tasks/ops)
+ *
+ * Input is a JSON array, in the order the operations must be applied:
+ *   {"op": "add", "title": "...", "category": "Work"}   category is optional
+ *   {"op": "complete", "id": 3}
+ *   {"op": "uncomplete", "id": 3}
+ *   {"op": "delete", "id": 3}
+ *   {"op": "recategorize", "id": 3, "category": "Urgent"}
+ */
+public class TaskOperation {
+
+    public enum Kind {
+        ADD, COMPLETE, UNCOMPLETE, DELETE, RECATEGORIZE
+    }
+
+    private final Kind kind;
+    private final long id;
+    private final String title;
+    private final String category;
+
+    TaskOperation(Kind kind, long id, String title, String category) {
+        this.kind = kind;
+        this.id = id;
+        this.title = title;
+        this.category = category;
+    }
+
+    /**
+     * Parses a JSON array of operations
+     *
+     * @param json The request body
+     * @return The operations, in order
+     * @throws IllegalArgumentException If the body is not an array of well-formed operations
+     */
+    public static List<TaskOperation> parseAll(String json) {
+        JsonArray array;
+        try {
+            JsonElement root = JsonParser.parseString(json);
+            if (!root.isJsonArray()) {
+                throw new IllegalArgumentException("Expected a JSON array of operations");
+            }
+            array = root.getAsJsonArray();
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getMessage(), e);
+        }
+
+        List<TaskOperation> operations = new ArrayList<>(array.size());
+        for (int i = 0; i < array.size(); i++) {
+            if (!array.get(i).isJsonObject()) {
+                throw new IllegalArgumentException("Operation " + i + " is not an object");
+            }
+            operations.add(parse(i, array.get(i).getAsJsonObject()));
+        }
+        return operations;
+    }
+
+    private static TaskOperation parse(int index, JsonObject object) {
+        String op = string(index, object, "op");
+        Kind kind;
+        try {
+            kind = Kind.valueOf(op == null ? "" : op.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Operation " + index + " has unknown op: " + op);
+        }
+
+        long id = 0;
+        if (kind != Kind.ADD) {
+            JsonElement value = object.get("id");
+            try {
+                id = value.getAsLong();
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Operation " + index + " needs a numeric id");
+            }
+        }
+        return new TaskOperation(kind, id, string(index, object, "title"), string(index, object, "category"));
+    }
+
+    private static String string(int index, JsonObject object, String field) {
+        JsonElement value = object.get(field);
+        if (value == null || value.isJsonNull()) {
+            return null;
+        }
+        if (!value.isJsonPrimitive()) {
+            throw new IllegalArgumentException("Operation " + index + " has a non-text " + field);
+        }
+        return value.getAsString();
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * The outcome of one operation
+     */
+    public static class Result {
+
+        public enum Status {
+            /** The change was applied */
+            OK,
+            /** The task was already in the requested state; nothing was written */
+            UNCHANGED,
+            /** No task has the given ID (it may have been deleted by an earlier operation) */
+            NOT_FOUND,
+            /** The operation's arguments were rejected, for example an empty title */
+            INVALID
+        }
+
+        private final TaskOperation operation;
+        private final Status status;
+        private final Task task;
+        private final String error;
+
+        Result(TaskOperation operation, Status status, Task task, String error) {
+            this.operation = operation;
+            this.status = status;
+            this.task = task;
+            this.error = error;
+        }
+
+        public TaskOperation getOperation() {
+            return operation;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Gets the task after the operation
+         *
+         * @return The task, or null if it was deleted or the operation failed
+         */
+        public Task getTask() {
+            return task;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * TaskPrinter writes the numbered task lists of the CLI views
+ *
+ * Each row is "N. " followed by the task's toString() text, exactly as the views printed
+ * it with printf. Rows are rendered into one reused StringBuilder with Task.appendTo
+ * (no String.format per row) and handed to the console a page at a time, so a list of
+ * 100k tasks costs a few hundred writes instead of one formatted, flushed write per task,
+ * and never sits in memory all at once.
+ *
+ * Pages go through the given PrintStream so they are encoded with the console's charset
+ * and stay ordered with the views' other println output.
+ */
+public class TaskPrinter {
+    private static final int PAGE_CHARS = 1 << 16;
+
+    private final PrintStream out;
+    private final StringBuilder page = new StringBuilder(PAGE_CHARS + 1024);
+
+    public TaskPrinter(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Prints tasks as a numbered list starting at 1
+     *
+     * @param tasks The tasks, in display order
+     */
+    public synchronized void printNumbered(List<Task> tasks) {
+        page.setLength(0);
+        for (int i = 0; i < tasks.size(); i++) {
+            page.append(i + 1).append(". ");
+            tasks.get(i).appendTo(page).append('\n');
+            if (page.length() >= PAGE_CHARS) {
+                flushPage();
+            }
+        }
+        flushPage();
+        out.flush();
+    }
+
+    private void flushPage() {
+        if (page.length() > 0) {
+            out.append(page);
+            page.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TaskSearchIndex maps every 3-character substring (trigram) of a lowercased title
+ * to the IDs of the tasks containing it; a title shorter than three characters is
+ * indexed under the whole title
+ *
+ * A query of three characters is answered straight from its posting set. A longer
+ * query starts from the smallest posting set among its trigrams and verifies each
+ * candidate, so search cost follows the number of candidates rather than the total
+ * title length. A query of one or two characters lies inside some key of every title
+ * containing it, so it is answered from the postings of the keys that contain it,
+ * or by scanning the snapshot when those postings outnumber its tasks.
+ * There are no 1- and 2-character postings: they hold almost every task and made
+ * indexing a large import several times slower. Matching is the same case-insensitive
+ * substring test the CLI always used.
+ *
+ * The index is changed only by TaskManager writers (under its write lock) and
+ * readers never lock, so a search may run while the index is ahead of the reader's
+ * snapshot. Results are still exactly the matching tasks of that snapshot: titles
+ * never change and IDs are never reused, so an entry always describes its task;
+ * tasks added since the snapshot are dropped when IDs are resolved against it; and
+ * a search whose snapshot predates the latest removal, which may have lost entries
+ * it needs, scans the snapshot instead.
+ */
+public class TaskSearchIndex {
+    private static final int GRAM = 3;
+
+    private final ConcurrentHashMap<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private volatile long removedRevision; // first snapshot revision lacking the last removed task
+
+    /**
+     * Indexes a task's title
+     *
+     * @param task The task to add
+     */
+    public void add(Task task) {
+        Long id = task.getId();
+        String title = normalize(task.getTitle());
+        if (title.length() < GRAM) {
+            if (!title.isEmpty()) {
+                postings.computeIfAbsent(title, g -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+            return;
+        }
+        for (int i = 0; i + GRAM <= title.length(); i++) {
+            postings.computeIfAbsent(title.substring(i, i + GRAM), g -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Indexes many tasks, in parallel on the common ForkJoin pool (posting sets are concurrent)
+     *
+     * @param tasks The tasks to add
+     */
+    public void addAll(Collection<Task> tasks) {
+        tasks.parallelStream().forEach(this::add);
+    }
+
+    /**
+     * Removes a task's title from the index
+     *
+     * @param task The task to remove
+     * @param revision The revision of the first snapshot without the task
+     */
+    public void remove(Task task, long revision) {
+        // Set before any entry goes, so a reader that misses one also sees the revision
+        removedRevision = revision;
+        Long id = task.getId();
+        String title = normalize(task.getTitle());
+        if (title.length() < GRAM) {
+            if (!title.isEmpty()) {
+                removeId(title, id);
+            }
+            return;
+        }
+        for (int i = 0; i + GRAM <= title.length(); i++) {
+            removeId(title.substring(i, i + GRAM), id);
+        }
+    }
+
+    private void removeId(String key, Long id) {
+        postings.computeIfPresent(key, (g, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Finds tasks whose title contains the query (case-insensitive)
+     *
+     * @param query The text to look for
+     * @param snapshot The snapshot to search
+     * @return Matching tasks in display (ID) order
+     */
+    public List<Task> search(String query, TaskSnapshot snapshot) {
+        String needle = normalize(query);
+        if (needle.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Task> matches = lookup(needle, snapshot);
+        if (removedRevision > snapshot.getRevision()) {
+            return scan(needle, snapshot);
+        }
+        return matches;
+    }
+
+    private List<Task> lookup(String needle, TaskSnapshot snapshot) {
+        if (needle.length() < GRAM) {
+            // Every key containing the needle belongs to a title containing it, so no verification
+            List<Set<Long>> sets = new ArrayList<>();
+            long total = 0;
+            for (Map.Entry<String, Set<Long>> posting : postings.entrySet()) {
+                if (posting.getKey().contains(needle)) {
+                    sets.add(posting.getValue());
+                    total += posting.getValue().size();
+                }
+            }
+            if (total > snapshot.size()) {
+                return scan(needle, snapshot);
+            }
+            return resolve(sets, snapshot, null);
+        }
+
+        Set<Long> candidates = null;
+        for (int i = 0; i + GRAM <= needle.length(); i++) {
+            Set<Long> ids = postings.get(needle.substring(i, i + GRAM));
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            if (candidates == null || ids.size() < candidates.size()) {
+                candidates = ids;
+            }
+        }
+
+        return resolve(Collections.singletonList(candidates), snapshot, needle.length() > GRAM ? needle : null);
+    }
+
+    /**
+     * Looks the IDs in the posting sets up in the snapshot, in ID order and without duplicates
+     *
+     * @param verifyNeedle Checked against each title when candidates may not all match; null to skip
+     */
+    private static List<Task> resolve(List<Set<Long>> candidates, TaskSnapshot snapshot, String verifyNeedle) {
+        int total = 0;
+        for (Set<Long> set : candidates) {
+            total += set.size();
+        }
+        long[] ids = new long[total];
+        int count = 0;
+        for (Set<Long> set : candidates) {
+            // Sets may grow while being read; writers never block on searches
+            for (Long id : set) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(16, ids.length * 2));
+                }
+                ids[count++] = id;
+            }
+        }
+        Arrays.sort(ids, 0, count);
+
+        List<Task> matches = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && ids[i] == ids[i - 1]) {
+                continue;
+            }
+            Task task = snapshot.getTask(ids[i]);
+            if (task != null && (verifyNeedle == null || containsIgnoreCase(task.getTitle(), verifyNeedle))) {
+                matches.add(task);
+            }
+        }
+        return matches;
+    }
+
+    // A common letter is in most titles; checking each one beats merging its many postings
+    private static List<Task> scan(String needle, TaskSnapshot snapshot) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : snapshot.getTasks()) {
+            if (containsIgnoreCase(task.getTitle(), needle)) {
+                matches.add(task);
+            }
+        }
+        // Same order as the indexed path even when a hand-edited file lists IDs out of order
+        matches.sort(Comparator.comparingLong(Task::getId));
+        return matches;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    // Substring test without allocating a lowercased copy of the title
+    private static boolean containsIgnoreCase(String title, String lowerNeedle) {
+        int last = title.length() - lowerNeedle.length();
+        for (int i = 0; i <= last; i++) {
+            if (title.regionMatches(true, i, lowerNeedle, 0, lowerNeedle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,179 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * TaskSnapshot is an immutable view of all tasks at one point in time
+ * TaskManager publishes a new snapshot after every mutation; readers can keep
+ * using an old one for as long as they like
+ * 
+ * Filtered views (by status and category) are computed on first use and kept with the
+ * snapshot, and pages are located by binary search on task IDs, which ascend in display order.
+ * A snapshot of columnar storage (TaskColumns) holds no Task objects; they are created on access.
+ */
+public class TaskSnapshot {
+    static final TaskSnapshot EMPTY = new TaskSnapshot(0, Collections.emptyList(), TaskStats.EMPTY);
+    
+    private final long revision;
+    private final List<Task> tasks;
+    private final Map<Long, Task> tasksById; // null for columnar snapshots
+    private final TaskColumns.View columns; // null unless the tasks are columnar
+    private final TaskStats stats;
+    private final boolean idsAscending;
+    // Index: status (0 any, 1 pending, 2 completed) * (categories + 1) + (category ordinal, or categories for any)
+    private final AtomicReferenceArray<List<Task>> views =
+        new AtomicReferenceArray<>(3 * (Category.values().length + 1));
+    
+    /**
+     * Creates a snapshot by copying the given tasks
+     * 
+     * @param revision The revision number; increases with every mutation
+     * @param tasks The tasks in display order
+     * @param stats The summary counts for these tasks
+     */
+    TaskSnapshot(long revision, Collection<Task> tasks, TaskStats stats) {
+        this.revision = revision;
+        this.stats = stats;
+        this.tasks = List.copyOf(tasks);
+        Map<Long, Task> byId = new HashMap<>(Math.max(16, tasks.size() * 4 / 3 + 1));
+        boolean ascending = true;
+        long previousId = Long.MIN_VALUE;
+        for (Task task : this.tasks) {
+            byId.put(task.getId(), task);
+            ascending &= task.getId() > previousId;
+            previousId = task.getId();
+        }
+        this.idsAscending = ascending;
+        this.tasksById = Collections.unmodifiableMap(byId);
+        this.columns = null;
+    }
+    
+    /**
+     * Creates a snapshot of columnar tasks without copying them
+     * 
+     * @param revision The revision number; increases with every mutation
+     * @param columns The published tasks
+     * @param stats The summary counts for these tasks
+     */
+    TaskSnapshot(long revision, TaskColumns.View columns, TaskStats stats) {
+        this.revision = revision;
+        this.stats = stats;
+        this.tasks = columns;
+        this.tasksById = null;
+        this.columns = columns;
+        this.idsAscending = true;
+    }
+    
+    /**
+     * Gets the revision number
+     * Two snapshots from the same TaskManager with the same revision hold the same tasks
+     * 
+     * @return The revision number
+     */
+    public long getRevision() {
+        return revision;
+    }
+    
+    /**
+     * Gets all tasks in display order
+     * 
+     * @return Immutable list of tasks
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+    
+    /**
+     * Gets the tasks with a status and category in display order
+     * Each view is computed once per snapshot
+     * 
+     * @param completed true for completed, false for pending, null for both
+     * @param category The category, or null for all
+     * @return Immutable list of tasks
+     */
+    public List<Task> getTasks(Boolean completed, Category category) {
+        if (completed == null && category == null) {
+            return tasks;
+        }
+        int categories = Category.values().length;
+        int slot = (completed == null ? 0 : completed ? 2 : 1) * (categories + 1)
+            + (category == null ? categories : category.ordinal());
+        List<Task> view = views.get(slot);
+        if (view == null) {
+            view = columns != null ? columns.filter(completed, category) : filter(tasks, completed, category);
+            views.compareAndSet(slot, null, view);
+        }
+        return view;
+    }
+    
+    /**
+     * Filters tasks by status and category, keeping their order
+     * 
+     * @param tasks The tasks to filter
+     * @param completed true for completed, false for pending, null for both
+     * @param category The category, or null for all
+     * @return Immutable list of matching tasks
+     */
+    public static List<Task> filter(List<Task> tasks, Boolean completed, Category category) {
+        List<Task> matches = new ArrayList<>();
+        for (Task task : tasks) {
+            if ((completed == null || task.isCompleted() == completed)
+                    && (category == null || Category.fromName(task.getCategory()) == category)) {
+                matches.add(task);
+            }
+        }
+        return Collections.unmodifiableList(matches);
+    }
+    
+    /**
+     * Finds where the page after a cursor starts in a list taken from this snapshot
+     * 
+     * @param view This snapshot's tasks or a filtered view of them
+     * @param cursor The ID of the last task on the previous page
+     * @return Index of the first task after the cursor (view.size() if none)
+     */
+    public int indexAfter(List<Task> view, long cursor) {
+        if (idsAscending) {
+            int low = 0;
+            int high = view.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (view.get(mid).getId() <= cursor) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+        // Hand-edited files may list IDs out of order: fall back to finding the cursor task itself
+        for (int i = 0; i < view.size(); i++) {
+            if (view.get(i).getId() == cursor) {
+                return i + 1;
+            }
+        }
+        return view.size();
+    }
+    
+    /**
+     * Gets a task by ID
+     * 
+     * @param id The task ID
+     * @return The task, or null if no task has that ID
+     */
+    public Task getTask(long id) {
+        return columns != null ? columns.find(id) : tasksById.get(id);
+    }
+    
+    /**
+     * Gets the summary counts
+     * 
+     * @return Counts of all, completed and pending tasks and tasks per category
+     */
+    public TaskStats getStats() {
+        return stats;
+    }
+    
+    public int size() {
+        return tasks.size();
+    }
+}
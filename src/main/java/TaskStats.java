@@ -0,0 +1,53 @@
+/**
+ * TaskStats holds the summary counts for one TaskSnapshot
+ * TaskManager keeps the counters up to date on every mutation, so reading them is O(1)
+ */
+public class TaskStats {
+    static final TaskStats EMPTY = new TaskStats(0, 0, new long[Category.values().length]);
+
+    private final long total;
+    private final long completed;
+    private final long[] categoryCounts;
+
+    /**
+     * @param total Number of tasks
+     * @param completed Number of completed tasks
+     * @param categoryCounts Tasks per category, indexed by Category ordinal (not copied)
+     */
+    TaskStats(long total, long completed, long[] categoryCounts) {
+        this.total = total;
+        this.completed = completed;
+        this.categoryCounts = categoryCounts;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getPending() {
+        return total - completed;
+    }
+
+    /**
+     * Gets the number of tasks in a category
+     *
+     * @param category The category
+     * @return Number of tasks in that category
+     */
+    public long getCount(Category category) {
+        return categoryCounts[category.ordinal()];
+    }
+
+    /**
+     * Gets the completion rate
+     *
+     * @return Completed tasks as a percentage of all tasks (0 when there are none)
+     */
+    public double getCompletionRate() {
+        return total == 0 ? 0 : (double) completed / total * 100;
+    }
+}
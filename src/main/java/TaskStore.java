@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * TaskStore persists the task list for TaskManager
+ * TaskManager reports every mutation together with the list it produced, so a store
+ * can either rewrite the whole list or record just the change
+ */
+public interface TaskStore {
+    
+    /**
+     * Loads the persisted tasks
+     * 
+     * @return A mutable list of tasks with IDs assigned (empty if nothing is stored yet)
+     * @throws IOException If the tasks cannot be read
+     */
+    List<Task> load() throws IOException;
+    
+    /**
+     * Loads the persisted tasks straight into columns, for -Dtodo.columnar=true
+     * Stores that can read records without creating a Task per record override it
+     * 
+     * @return The tasks, or null if this store only supports load()
+     * @throws IOException If the tasks cannot be read
+     * @throws IllegalArgumentException If the stored task IDs do not ascend
+     */
+    default TaskColumns loadColumns() throws IOException {
+        return null;
+    }
+    
+    /**
+     * Persists a single mutation
+     * 
+     * @param mutation The change that was applied
+     * @param tasks The tasks after the change, in display order
+     * @throws IOException If the change cannot be written
+     */
+    void commit(TaskMutation mutation, Collection<Task> tasks) throws IOException;
+    
+    /**
+     * Waits until every mutation committed so far is on disk
+     * TaskManager calls it after releasing its write lock, so a store whose commit() only
+     * appends can let writers that committed meanwhile share one sync (group commit)
+     * Stores that write before commit() returns have nothing to wait for
+     * 
+     * @throws IOException If the sync fails
+     */
+    default void sync() throws IOException {
+    }
+    
+    /**
+     * Gets a future that completes once every mutation committed so far is on disk
+     * Stores that write before commit() returns are always durable
+     * 
+     * @return The future; it completes exceptionally if the write fails
+     */
+    default CompletableFuture<Void> whenDurable() {
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    /**
+     * Gives the store the metrics to record its own background work in (see PersistenceMetrics.FLUSH)
+     * Stores that only write inside commit() and close() ignore it; TaskManager times those calls
+     * 
+     * @param metrics The manager's persistence metrics
+     */
+    default void setMetrics(PersistenceMetrics metrics) {
+    }
+    
+    /**
+     * Gets the file name shown in status messages
+     * 
+     * @return The primary file of this store
+     */
+    String getLocation();
+    
+    /**
+     * Flushes pending state and releases files and background threads
+     * 
+     * @throws IOException If the final flush fails
+     */
+    void close() throws IOException;
+}
@@ -0,0 +1,82 @@
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * TaskTypeAdapter reads and writes tasks in the tasks.json format
+ * Timestamps are epoch milliseconds in memory but stay "yyyy-MM-dd HH:mm:ss" strings on disk
+ */
+public class TaskTypeAdapter extends TypeAdapter<Task> {
+    
+    @Override
+    public void write(JsonWriter out, Task task) throws IOException {
+        if (task == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(task.getId());
+        out.name("title").value(task.getTitle());
+        out.name("category").value(task.getCategory());
+        out.name("completed").value(task.isCompleted());
+        out.name("createdAt").value(task.getCreatedAt());
+        out.name("completedAt").value(task.getCompletedAt());
+        out.endObject();
+    }
+    
+    @Override
+    public Task read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Task task = new Task();
+        boolean completed = false;
+        long completedAt = Task.NO_TIMESTAMP;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id":
+                    task.setId(in.nextLong());
+                    break;
+                case "title":
+                    task.setTitle(in.nextString());
+                    break;
+                case "category":
+                    task.setCategory(in.nextString());
+                    break;
+                case "completed":
+                    completed = in.nextBoolean();
+                    break;
+                case "createdAt":
+                    task.setCreatedAtMillis(readTimestamp(in));
+                    break;
+                case "completedAt":
+                    completedAt = readTimestamp(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        task.setCompleted(completed);
+        task.setCompletedAtMillis(completed ? completedAt : Task.NO_TIMESTAMP);
+        return task;
+    }
+    
+    // Accepts the formatted string, or a number of epoch milliseconds
+    private long readTimestamp(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NUMBER) {
+            return in.nextLong();
+        }
+        return Task.parseTimestamp(in.nextString());
+    }
+}
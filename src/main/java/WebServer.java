@@ -6,73 +6,221 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class WebServer {
+  private static final int DEFAULT_PAGE_SIZE = 50;
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final int MAX_BATCH_OPERATIONS = 10000;
+
   private final TaskManager taskManager;
   private final int port;
+  // Distinguishes ETags of this process from those of an earlier run with the same revisions
+  private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+  private final ExecutorService executor;
+  private final ResponseCache responseCache = new ResponseCache();
+  private final TaskEventStream events = new TaskEventStream();
+  private final StaticAsset indexPage = StaticAsset.load("index.html", "text/html; charset=utf-8", "no-cache");
+  private final StaticAsset logo = StaticAsset.load("S_logo_my.png", "image/png", "public, max-age=86400");
+  private final RequestMetrics requestMetrics = new RequestMetrics(
+      "/", "/api/tasks", "/api/tasks/{id}", "/api/tasks/batch", "/api/tasks/ops", "/api/events", "/api/stats", "/metrics", "/favicon.ico", "/S_logo_my.png");
   private HttpServer server;
 
   public WebServer(TaskManager taskManager, int port) throws IOException {
+    this(taskManager, port, 0, createExecutor(0, 1000));
+  }
+
+  /**
+   * @param backlog Maximum queued incoming connections (0 = system default)
+   * @param executor Runs request handlers; see createExecutor
+   */
+  public WebServer(TaskManager taskManager, int port, int backlog, ExecutorService executor) throws IOException {
     this.taskManager = taskManager;
     this.port = port;
-    this.server = HttpServer.create(new InetSocketAddress(port), 0);
+    this.executor = executor;
+    this.server = HttpServer.create(new InetSocketAddress(port), backlog);
+    this.server.setExecutor(executor);
     registerRoutes();
+    taskManager.addListener(events);
   }
 
-  private void registerRoutes() {
-    server.createContext("/", this::handleIndex);
-    server.createContext("/api/tasks", this::handleTasks);
-    server.createContext("/api/tasks/", this::handleTaskByIndex);
-    server.createContext("/favicon.ico", exchange -> {
-    try {
-        java.nio.file.Path path = java.nio.file.Paths.get("S_logo_my.png"); // Using S_logo_my.png as favicon
-        byte[] bytes = java.nio.file.Files.readAllBytes(path);
-        exchange.getResponseHeaders().set("Content-Type", "image/png");
-        exchange.sendResponseHeaders(200, bytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(bytes);
-        }
-    } catch (IOException e) {
-        exchange.sendResponseHeaders(404, -1);
-    }
-});
-    server.createContext("/S_logo_my.png", exchange -> {
-    try {
-        java.nio.file.Path path = java.nio.file.Paths.get("S_logo_my.png"); 
-        byte[] bytes = java.nio.file.Files.readAllBytes(path);
-        exchange.getResponseHeaders().set("Content-Type", "image/png");
-        exchange.sendResponseHeaders(200, bytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(bytes);
-        }
-    } catch (IOException e) {
-        exchange.sendResponseHeaders(404, -1);
+  /**
+   * Creates the request executor.
+   * threads == 0 uses one virtual thread per request when the JDK supports it (21+),
+   * otherwise (or for threads > 0) a fixed platform pool with a bounded queue; when the
+   * queue is full the accepting thread runs the request itself, which slows down accepts.
+   */
+  public static ExecutorService createExecutor(int threads, int queueLimit) {
+    if (threads <= 0) {
+      try {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      } catch (ReflectiveOperationException e) {
+        threads = Runtime.getRuntime().availableProcessors() * 2;
+      }
     }
-});
+    AtomicInteger counter = new AtomicInteger();
+    return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueLimit)),
+        r -> {
+          Thread t = new Thread(r, "http-worker-" + counter.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  private void registerRoutes() {
+    server.createContext("/", timed("/", this::handleIndex));
+    server.createContext("/api/tasks", timed("/api/tasks", this::handleTasks));
+    server.createContext("/api/tasks/", timed("/api/tasks/{id}", this::handleTaskById));
+    server.createContext("/api/tasks/batch", timed("/api/tasks/batch", this::handleBatch));
+    server.createContext("/api/tasks/ops", timed("/api/tasks/ops", this::handleOperations));
+    server.createContext("/api/events", timed("/api/events", this::handleEvents));
+    server.createContext("/api/stats", timed("/api/stats", this::handleStats));
+    server.createContext("/metrics", timed("/metrics", this::handleMetrics));
+    server.createContext("/favicon.ico", timed("/favicon.ico", exchange -> serveAsset(exchange, logo))); // Using S_logo_my.png as favicon
+    server.createContext("/S_logo_my.png", timed("/S_logo_my.png", exchange -> serveAsset(exchange, logo)));
+  }
+
+  /**
+   * Wraps a handler so each request's latency and status code are recorded for a route
+   */
+  private HttpHandler timed(String route, HttpHandler handler) {
+    int index = requestMetrics.indexOf(route);
+    return exchange -> {
+      long startNanos = System.nanoTime();
+      try {
+        handler.handle(exchange);
+      } catch (IOException | RuntimeException e) {
+        requestMetrics.record(index, 500, System.nanoTime() - startNanos);
+        throw e;
+      }
+      requestMetrics.record(index, exchange.getResponseCode(), System.nanoTime() - startNanos);
+    };
   }
   
 
   public void start() {
     server.start();
     System.out.println("✅ Web server started at http://localhost:" + port + "/");
+    System.out.println("🧵 Request executor: " + describeExecutor());
+  }
+
+  public void stop() {
+    taskManager.removeListener(events);
+    events.close();
+    server.stop(1);
+    executor.shutdown();
+  }
+
+  private String describeExecutor() {
+    if (executor instanceof ThreadPoolExecutor) {
+      ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+      return pool.getMaximumPoolSize() + " platform threads, queue limit "
+          + (pool.getQueue().remainingCapacity() + pool.getQueue().size());
+    }
+    return "virtual thread per request";
   }
 
   private void handleIndex(HttpExchange exchange) throws IOException {
-    if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+    if (!exchange.getRequestURI().getPath().equals("/")) {
+      sendText(exchange, 404, "Not Found");
+      return;
+    }
+    serveAsset(exchange, indexPage);
+  }
+
+  private void serveAsset(HttpExchange exchange, StaticAsset asset) throws IOException {
+    String method = exchange.getRequestMethod();
+    if (!"GET".equalsIgnoreCase(method) && !"HEAD".equalsIgnoreCase(method)) {
       sendText(exchange, 405, "Method Not Allowed");
       return;
     }
-    String html = "<!doctype html><html><head><meta charset=\"utf-8\"><meta name=\"viewport\" content=\"width=device-width,initial-scale=1\"><title>AI To-Do Manager</title><link rel=\"icon\" href=\"/favicon.ico\" type=\"image/x-icon\"><link rel=\"shortcut icon\" href=\"/favicon.ico\" type=\"image/x-icon\"><style>*{margin:0;padding:0;box-sizing:border-box}body{font-family:'Inter',-apple-system,BlinkMacSystemFont,'Segoe UI',Roboto,sans-serif;background:linear-gradient(135deg,#0f0f23 0%,#1a1a2e 50%,#16213e 100%);color:#e2e8f0;min-height:100vh;padding:20px;overflow-x:hidden}.container{max-width:800px;margin:0 auto;background:rgba(30,41,59,0.8);backdrop-filter:blur(20px);border-radius:24px;border:1px solid rgba(148,163,184,0.1);padding:32px;box-shadow:0 25px 50px -12px rgba(0,0,0,0.5)}.header{text-align:center;margin-bottom:40px}.title{font-size:2.5rem;font-weight:700;background:linear-gradient(135deg,#60a5fa 0%,#a78bfa 50%,#f472b6 100%);-webkit-background-clip:text;-webkit-text-fill-color:transparent;background-clip:text;margin-bottom:8px;text-shadow:0 0 30px rgba(96,165,250,0.3)}.subtitle{color:#94a3b8;font-size:1.1rem;font-weight:400}.input-section{margin-bottom:32px}.input-row{display:flex;gap:12px;margin-bottom:16px}.task-input{flex:1;padding:16px 20px;background:rgba(51,65,85,0.6);border:2px solid rgba(148,163,184,0.2);border-radius:16px;color:#e2e8f0;font-size:16px;transition:all 0.3s ease;backdrop-filter:blur(10px)}.task-input:focus{outline:none;border-color:#60a5fa;box-shadow:0 0 0 4px rgba(96,165,250,0.1),0 0 20px rgba(96,165,250,0.2)}.task-input::placeholder{color:#64748b}.add-btn{padding:16px 32px;background:linear-gradient(135deg,#3b82f6 0%,#8b5cf6 100%);border:none;border-radius:16px;color:white;font-weight:600;font-size:16px;cursor:pointer;transition:all 0.3s ease;box-shadow:0 8px 25px rgba(59,130,246,0.3)}.add-btn:hover:not(:disabled){transform:translateY(-2px);box-shadow:0 12px 35px rgba(59,130,246,0.4)}.add-btn:disabled{opacity:0.6;cursor:not-allowed;transform:none}.error{color:#f87171;font-size:14px;margin-top:8px;padding:8px 16px;background:rgba(239,68,68,0.1);border-radius:8px;border-left:4px solid #ef4444}.filters-section{margin-bottom:32px;padding:24px;background:rgba(51,65,85,0.3);border-radius:20px;border:1px solid rgba(148,163,184,0.1)}.filter-header{display:flex;justify-content:space-between;align-items:center;flex-wrap:wrap;gap:16px}.filter-buttons{display:flex;gap:8px}.filter-btn{padding:10px 20px;background:rgba(71,85,105,0.5);border:1px solid rgba(148,163,184,0.2);border-radius:12px;color:#cbd5e1;font-weight:500;cursor:pointer;transition:all 0.3s ease}.filter-btn:hover{background:rgba(96,165,250,0.2);border-color:#60a5fa;color:#60a5fa}.filter-btn.active{background:linear-gradient(135deg,#60a5fa 0%,#8b5cf6 100%);border-color:transparent;color:white;box-shadow:0 4px 15px rgba(96,165,250,0.3)}.counts{display:flex;gap:12px;flex-wrap:wrap}.count-badge{padding:8px 16px;background:rgba(71,85,105,0.4);border-radius:12px;font-size:14px;font-weight:500;border:1px solid rgba(148,163,184,0.1)}.count-number{color:#60a5fa;font-weight:700}.refresh-btn{padding:12px 24px;background:rgba(71,85,105,0.5);border:1px solid rgba(148,163,184,0.2);border-radius:12px;color:#cbd5e1;font-weight:500;cursor:pointer;transition:all 0.3s ease;margin-bottom:24px}.refresh-btn:hover{background:rgba(96,165,250,0.2);border-color:#60a5fa;color:#60a5fa}.tasks-list{list-style:none}.task-item{background:rgba(51,65,85,0.4);border:1px solid rgba(148,163,184,0.1);border-radius:16px;padding:20px;margin-bottom:12px;display:flex;align-items:center;justify-content:space-between;transition:all 0.3s ease;backdrop-filter:blur(10px)}.task-item:hover{background:rgba(51,65,85,0.6);border-color:rgba(148,163,184,0.3);transform:translateY(-1px);box-shadow:0 8px 25px rgba(0,0,0,0.2)}.task-content{flex:1;display:flex;align-items:center;gap:12px}.task-text{font-size:16px;font-weight:500}.task-category{background:rgba(96,165,250,0.2);color:#60a5fa;padding:4px 12px;border-radius:8px;font-size:12px;font-weight:600}.task-completed{color:#10b981}.task-actions{display:flex;gap:8px}.action-btn{padding:8px 16px;border:none;border-radius:10px;font-weight:500;font-size:14px;cursor:pointer;transition:all 0.3s ease}.complete-btn{background:rgba(16,185,129,0.2);color:#10b981;border:1px solid rgba(16,185,129,0.3)}.complete-btn:hover:not(:disabled){background:rgba(16,185,129,0.3);box-shadow:0 4px 15px rgba(16,185,129,0.2)}.complete-btn:disabled{opacity:0.5;cursor:not-allowed}.delete-btn{background:rgba(239,68,68,0.2);color:#ef4444;border:1px solid rgba(239,68,68,0.3)}.delete-btn:hover{background:rgba(239,68,68,0.3);box-shadow:0 4px 15px rgba(239,68,68,0.2)}@keyframes fadeIn{from{opacity:0;transform:translateY(20px)}to{opacity:1;transform:translateY(0)}}.task-item{animation:fadeIn 0.3s ease}@media (max-width:640px){.container{padding:20px;margin:10px}.title{font-size:2rem}.input-row{flex-direction:column}.filter-header{flex-direction:column;align-items:stretch}.counts{justify-content:center}.task-item{flex-direction:column;align-items:stretch;gap:16px}.task-actions{justify-content:center}}</style></head><body><div class=\"container\"><div class=\"header\"><h1 class=\"title\">🤖 AI-Powered To-Do Manager</h1><p class=\"subtitle\">Intelligent task management with modern design</p></div><div class=\"input-section\"><div class=\"input-row\"><input id=\"title\" class=\"task-input\" placeholder=\"What needs to be done?\"/><button id=\"addBtn\" class=\"add-btn\" onclick=\"addTask()\">Add Task</button></div><div id=\"error\" class=\"error\" style=\"display:none\"></div></div><div class=\"filters-section\"><div class=\"filter-header\"><div class=\"filter-buttons\"><button id=\"fAll\" class=\"filter-btn active\" onclick=\"setFilter('all')\">All Tasks</button><button id=\"fPending\" class=\"filter-btn\" onclick=\"setFilter('pending')\">Pending</button><button id=\"fCompleted\" class=\"filter-btn\" onclick=\"setFilter('completed')\">Completed</button></div><div class=\"counts\"><div class=\"count-badge\">Total: <span class=\"count-number\" id=\"cAll\">0</span></div><div class=\"count-badge\">Pending: <span class=\"count-number\" id=\"cPending\">0</span></div><div class=\"count-badge\">Done: <span class=\"count-number\" id=\"cCompleted\">0</span></div></div></div></div><button class=\"refresh-btn\" onclick=\"load()\">🔄 Refresh Tasks</button><ul id=\"list\" class=\"tasks-list\"></ul></div><script>let currentFilter='all';function setFilter(f){currentFilter=f;highlightFilter();render(window.__tasks||[]);}function highlightFilter(){['fAll','fPending','fCompleted'].forEach(id=>{document.getElementById(id).classList.remove('active');});if(currentFilter==='all'){document.getElementById('fAll').classList.add('active');}else if(currentFilter==='pending'){document.getElementById('fPending').classList.add('active');}else{document.getElementById('fCompleted').classList.add('active');}}async function load(){const r=await fetch('/api/tasks');const d=await r.json();window.__tasks=d;render(d);}function computeCounts(tasks){const all=tasks.length;const completed=tasks.filter(t=>t.completed).length;const pending=all-completed;return {all,pending,completed};}function render(tasks){const {all,pending,completed}=computeCounts(tasks);document.getElementById('cAll').textContent=all;document.getElementById('cPending').textContent=pending;document.getElementById('cCompleted').textContent=completed;const ul=document.getElementById('list');ul.innerHTML='';let view=tasks;if(currentFilter==='pending'){view=tasks.filter(t=>!t.completed);}else if(currentFilter==='completed'){view=tasks.filter(t=>t.completed);}view.forEach((t,i)=>{const li=document.createElement('li');li.className='task-item';const content=document.createElement('div');content.className='task-content';const text=document.createElement('span');text.className='task-text';text.textContent=t.title;const category=document.createElement('span');category.className='task-category';category.textContent=t.category;const completed=document.createElement('span');if(t.completed){completed.className='task-completed';completed.textContent='✅ Completed';}content.appendChild(text);content.appendChild(category);if(t.completed)content.appendChild(completed);const actions=document.createElement('div');actions.className='task-actions';const btnC=document.createElement('button');btnC.className='action-btn complete-btn';btnC.textContent='✓ Complete';btnC.disabled=t.completed;btnC.onclick=()=>completeTask(indexFromOriginal(tasks,t));const btnD=document.createElement('button');btnD.className='action-btn delete-btn';btnD.textContent='🗑 Delete';btnD.onclick=()=>deleteTask(indexFromOriginal(tasks,t));actions.appendChild(btnC);actions.appendChild(btnD);li.appendChild(content);li.appendChild(actions);ul.appendChild(li);});highlightFilter();}function indexFromOriginal(allTasks, task){const idx=allTasks.indexOf(task);return (idx>=0?idx:window.__tasks.indexOf(task))+1;}async function addTask(){const input=document.getElementById('title');const btn=document.getElementById('addBtn');const err=document.getElementById('error');err.style.display='none';const v=input.value.trim();if(!v){err.textContent='Please enter a task title';err.style.display='block';return;}btn.disabled=true;btn.textContent='Adding...';try{const r=await fetch('/api/tasks',{method:'POST',headers:{'Content-Type':'application/json'},body:JSON.stringify({title:v})});if(!r.ok){const e=await r.text();err.textContent='Failed to add task: '+e;err.style.display='block';return;}input.value='';await load();}catch(e){err.textContent='Network error occurred';err.style.display='block';}finally{btn.disabled=false;btn.textContent='Add Task';}}async function completeTask(idx){const r=await fetch('/api/tasks/'+idx+'/complete',{method:'PUT'});if(r.ok){load();}else{const e=await r.text();alert('Failed to complete task: '+e);}}async function deleteTask(idx){const r=await fetch('/api/tasks/'+idx,{method:'DELETE'});if(r.ok){load();}else{const e=await r.text();alert('Failed to delete task: '+e);}}document.getElementById('title').addEventListener('keypress',function(e){if(e.key==='Enter'){addTask();}});load();</script></body></html>";
-    sendHtml(exchange, 200, html);
+    if (asset == null) {
+      sendText(exchange, 404, "Not Found");
+      return;
+    }
+    asset.serve(exchange);
   }
 
   private void handleTasks(HttpExchange exchange) throws IOException {
     switch (exchange.getRequestMethod()) {
       case "GET":
-        List<Task> tasks = getTasksSnapshot();
-        String json = toJson(tasks);
-        sendJson(exchange, 200, json);
+        TaskSnapshot snapshot = taskManager.getSnapshot();
+        String etag = "\"" + instanceId + "-" + snapshot.getRevision() + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        String status = queryParam(exchange, "status");
+        if (status == null) {
+          status = "all";
+        }
+        if (!status.equals("all") && !status.equals("pending") && !status.equals("completed")) {
+          sendJson(exchange, 400, "{\"error\":\"status must be all, pending or completed\"}");
+          return;
+        }
+        Boolean completed = status.equals("all") ? null : status.equals("completed");
+        String categoryName = queryParam(exchange, "category");
+        Category category = categoryName == null || categoryName.isEmpty() ? null : Category.lookup(categoryName);
+        if (categoryName != null && !categoryName.isEmpty() && category == null) {
+          sendJson(exchange, 400, "{\"error\":\"Unknown category\"}");
+          return;
+        }
+        String limitParam = queryParam(exchange, "limit");
+        String cursorParam = queryParam(exchange, "cursor");
+        int limit;
+        long cursor;
+        try {
+          limit = limitParam == null ? (cursorParam == null ? -1 : DEFAULT_PAGE_SIZE) : Integer.parseInt(limitParam);
+          cursor = cursorParam == null || cursorParam.isEmpty() ? 0 : Long.parseLong(cursorParam);
+        } catch (NumberFormatException e) {
+          sendJson(exchange, 400, "{\"error\":\"limit and cursor must be numbers\"}");
+          return;
+        }
+        if (limitParam != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+          sendJson(exchange, 400, "{\"error\":\"limit must be between 1 and " + MAX_PAGE_SIZE + "\"}");
+          return;
+        }
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        // A cached gzip body is only current for a client that still accepts gzip
+        String encodedEtag = StaticAsset.acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding"))
+            ? gzipEtag(etag) : etag;
+        if (matchesEtag(ifNoneMatch, etag) || matchesEtag(ifNoneMatch, encodedEtag)) {
+          // Confirm whichever representation the client holds
+          exchange.getResponseHeaders().set("ETag", matchesEtag(ifNoneMatch, etag) ? etag : encodedEtag);
+          exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+          exchange.sendResponseHeaders(304, -1);
+          exchange.close();
+          return;
+        }
+
+        String query = queryParam(exchange, "q");
+        boolean search = query != null && !query.isEmpty();
+        if (!search && limit < 0) {
+          // Whole (filtered) list: bounded set of views, cached per revision
+          String key = "status=" + status + "&category=" + (category == null ? "" : category.name());
+          ResponseCache.Body cached = responseCache.get(key, snapshot.getRevision(),
+              () -> toJson(snapshot.getTasks(completed, category)));
+          sendCached(exchange, 200, "application/json; charset=utf-8", cached);
+          return;
+        }
+        // Search results and pages are not cached: the key space is unbounded and both are cheap
+        List<Task> view = search
+            ? TaskSnapshot.filter(taskManager.findTasks(query, snapshot), completed, category)
+            : snapshot.getTasks(completed, category);
+        if (limit >= 0) {
+          int from = snapshot.indexAfter(view, cursor);
+          int to = Math.min(view.size(), from + limit);
+          if (to < view.size()) {
+            exchange.getResponseHeaders().set("X-Next-Cursor", Long.toString(view.get(to - 1).getId()));
+          }
+          view = view.subList(from, to);
+        }
+        sendJson(exchange, 200, toJson(view));
         break;
       case "POST":
         String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
@@ -93,33 +241,182 @@ public class WebServer {
     }
   }
 
-  private void handleTaskByIndex(HttpExchange exchange) throws IOException {
-    String path = exchange.getRequestURI().getPath(); // expected /api/tasks/{index} or /api/tasks/{index}/complete
+  /**
+   * POST /api/tasks/batch imports newline-delimited titles or a JSON array in one commit
+   */
+  private void handleBatch(HttpExchange exchange) throws IOException {
+    if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+      sendText(exchange, 405, "Method Not Allowed");
+      return;
+    }
+    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    TaskImport result;
+    try {
+      result = taskManager.importTasks(TaskImport.parseTitles(body));
+    } catch (IllegalArgumentException e) {
+      sendJson(exchange, 400, "{\"error\":\"" + escape(e.getMessage()) + "\"}");
+      return;
+    }
+    sendJson(exchange, 201, String.format(java.util.Locale.ROOT,
+        "{\"imported\":%d,\"skipped\":%d,\"millis\":%.1f,\"categorizeMillis\":%.1f,\"tasksPerSecond\":%.0f}",
+        result.getImported(), result.getSkipped(), result.getTotalMillis(), result.getCategorizeMillis(),
+        result.getTasksPerSecond()));
+  }
+
+  /**
+   * POST /api/tasks/ops applies a JSON array of task operations in one commit and
+   * reports one result per operation
+   */
+  private void handleOperations(HttpExchange exchange) throws IOException {
+    if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+      sendText(exchange, 405, "Method Not Allowed");
+      return;
+    }
+    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    List<TaskOperation> operations;
+    try {
+      operations = TaskOperation.parseAll(body);
+    } catch (IllegalArgumentException e) {
+      sendJson(exchange, 400, "{\"error\":\"" + escape(e.getMessage()) + "\"}");
+      return;
+    }
+    if (operations.size() > MAX_BATCH_OPERATIONS) {
+      sendJson(exchange, 400, "{\"error\":\"at most " + MAX_BATCH_OPERATIONS + " operations per request\"}");
+      return;
+    }
+
+    List<TaskOperation.Result> results = taskManager.applyOperations(operations);
+    int applied = 0;
+    StringBuilder sb = new StringBuilder(results.size() * 128 + 32);
+    sb.append("{\"results\":[");
+    for (int i = 0; i < results.size(); i++) {
+      TaskOperation.Result result = results.get(i);
+      TaskOperation operation = result.getOperation();
+      if (result.getStatus() == TaskOperation.Result.Status.OK) {
+        applied++;
+      }
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"op\":\"").append(operation.getKind().name().toLowerCase()).append('"');
+      if (operation.getKind() != TaskOperation.Kind.ADD) {
+        sb.append(",\"id\":").append(operation.getId());
+      }
+      sb.append(",\"status\":\"").append(result.getStatus().name().toLowerCase()).append('"');
+      if (result.getTask() != null) {
+        sb.append(",\"task\":");
+        appendJson(sb, result.getTask());
+      }
+      if (result.getError() != null) {
+        sb.append(",\"error\":\"").append(escape(result.getError())).append('"');
+      }
+      sb.append('}');
+    }
+    sb.append("],\"applied\":").append(applied).append('}');
+    sendJson(exchange, 200, sb.toString());
+  }
+
+  /**
+   * GET /api/events streams task changes as Server-Sent Events until the client disconnects
+   */
+  private void handleEvents(HttpExchange exchange) throws IOException {
+    if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+      sendText(exchange, 405, "Method Not Allowed");
+      return;
+    }
+    events.serve(exchange);
+  }
+
+  private void handleStats(HttpExchange exchange) throws IOException {
+    if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+      sendText(exchange, 405, "Method Not Allowed");
+      return;
+    }
+    exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+    sendJson(exchange, 200, toJson(taskManager.getSnapshot().getStats()));
+  }
+
+  static String toJson(TaskStats stats) {
+    StringBuilder sb = new StringBuilder(128);
+    sb.append("{\"total\":").append(stats.getTotal())
+        .append(",\"completed\":").append(stats.getCompleted())
+        .append(",\"pending\":").append(stats.getPending())
+        .append(",\"categories\":{");
+    Category[] categories = Category.values();
+    for (int i = 0; i < categories.length; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append('"').append(categories[i].getDisplayName()).append("\":").append(stats.getCount(categories[i]));
+    }
+    return sb.append("}}").toString();
+  }
+
+  private void handleMetrics(HttpExchange exchange) throws IOException {
+    if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+      sendText(exchange, 405, "Method Not Allowed");
+      return;
+    }
+    TaskSnapshot snapshot = taskManager.getSnapshot();
+    TaskStats stats = snapshot.getStats();
+    StringBuilder sb = new StringBuilder(16 * 1024);
+    sb.append("# HELP todo_tasks Tasks by state\n");
+    sb.append("# TYPE todo_tasks gauge\n");
+    sb.append("todo_tasks{state=\"pending\"} ").append(stats.getPending()).append('\n');
+    sb.append("todo_tasks{state=\"completed\"} ").append(stats.getCompleted()).append('\n');
+    sb.append("# HELP todo_task_revision Revision of the published task snapshot\n");
+    sb.append("# TYPE todo_task_revision gauge\n");
+    sb.append("todo_task_revision ").append(snapshot.getRevision()).append('\n');
+    requestMetrics.writePrometheus(sb);
+    taskManager.getPersistenceMetrics().writePrometheus(sb);
+    AICategorizer.getCache().writePrometheus(sb);
+    KeywordDictionary keywords = AICategorizer.getKeywordDictionary();
+    if (keywords != null) {
+      keywords.writePrometheus(sb);
+    }
+
+    byte[] b = sb.toString().getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+    exchange.sendResponseHeaders(200, b.length);
+    try (OutputStream os = exchange.getResponseBody()) {
+      os.write(b);
+    }
+  }
+
+  private void handleTaskById(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath(); // expected /api/tasks/{id} or /api/tasks/{id}/complete
     String[] parts = path.split("/");
     if (parts.length < 4) {
       sendText(exchange, 404, "Not Found");
       return;
     }
-    String idxStr = parts[3];
-    int index;
+    String idStr = parts[3];
+    long id;
     try {
-      index = Integer.parseInt(idxStr);
+      id = Long.parseLong(idStr);
     } catch (NumberFormatException e) {
-      sendText(exchange, 400, "Invalid index");
+      sendText(exchange, 400, "Invalid task id");
       return;
     }
     String method = exchange.getRequestMethod().toUpperCase();
     boolean isCompletePath = parts.length >= 5 && "complete".equalsIgnoreCase(parts[4]);
     try {
-      if ("DELETE".equals(method) && parts.length == 4) {
-        boolean ok = taskManager.deleteTask(index);
+      if ("GET".equals(method) && parts.length == 4) {
+        Task task = taskManager.getTaskById(id);
+        if (task != null) {
+          sendJson(exchange, 200, toJson(task));
+        } else {
+          sendJson(exchange, 404, "{\"error\":\"Task not found\"}");
+        }
+      } else if ("DELETE".equals(method) && parts.length == 4) {
+        boolean ok = taskManager.deleteTaskById(id);
         if (ok) {
           sendJson(exchange, 200, "{\"status\":\"deleted\"}");
         } else {
           sendJson(exchange, 400, "{\"error\":\"Delete failed\"}");
         }
       } else if ("PUT".equals(method) && isCompletePath) {
-        boolean ok = taskManager.completeTask(index);
+        boolean ok = taskManager.completeTaskById(id);
         if (ok) {
           sendJson(exchange, 200, "{\"status\":\"completed\"}");
         } else {
@@ -133,24 +430,69 @@ public class WebServer {
     }
   }
 
-  private List<Task> getTasksSnapshot() {
-    try {
-      java.lang.reflect.Field f = TaskManager.class.getDeclaredField("tasks");
-      f.setAccessible(true);
-      @SuppressWarnings("unchecked")
-      List<Task> list = (List<Task>) f.get(taskManager);
-      return List.copyOf(list);
-    } catch (Exception e) {
-      return List.of();
+  /**
+   * Gets the strong ETag of the gzip-encoded variant of a response: the identity tag
+   * with a "-gz" suffix, so caches never serve one encoding for the other
+   *
+   * @param etag A quoted strong ETag
+   * @return The tag of the gzip body
+   */
+  static String gzipEtag(String etag) {
+    return etag.substring(0, etag.length() - 1) + "-gz\"";
+  }
+
+  static boolean matchesEtag(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals(etag) || tag.equals("*")) {
+        return true;
+      }
     }
+    return false;
   }
 
-  private String toJson(List<Task> tasks) {
-    String items = tasks
-        .stream().map(t -> "{" + "\"title\":\"" + escape(t.getTitle()) + "\"," + "\"category\":\""
-            + escape(t.getCategory()) + "\"," + "\"completed\":" + (t.isCompleted() ? "true" : "false") + "}")
-        .collect(Collectors.joining(","));
-    return "[" + items + "]";
+  static String toJson(List<Task> tasks) {
+    StringBuilder sb = new StringBuilder(tasks.size() * 96 + 2);
+    sb.append('[');
+    for (int i = 0; i < tasks.size(); i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      appendJson(sb, tasks.get(i));
+    }
+    return sb.append(']').toString();
+  }
+
+  static String toJson(Task t) {
+    return appendJson(new StringBuilder(96), t).toString();
+  }
+
+  private static StringBuilder appendJson(StringBuilder sb, Task t) {
+    return sb.append("{\"id\":").append(t.getId())
+        .append(",\"title\":\"").append(escape(t.getTitle()))
+        .append("\",\"category\":\"").append(escape(t.getCategory()))
+        .append("\",\"completed\":").append(t.isCompleted()).append('}');
+  }
+
+  private String queryParam(HttpExchange exchange, String name) {
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query == null) {
+      return null;
+    }
+    for (String pair : query.split("&")) {
+      int eq = pair.indexOf('=');
+      String key = eq < 0 ? pair : pair.substring(0, eq);
+      if (key.equals(name)) {
+        return eq < 0 ? "" : java.net.URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+      }
+    }
+    return null;
   }
 
   private String parseTitle(String body) {
@@ -173,9 +515,21 @@ public class WebServer {
     }
   }
 
-  private void sendHtml(HttpExchange ex, int code, String html) throws IOException {
-    byte[] b = html.getBytes(StandardCharsets.UTF_8);
-    ex.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+  private void sendCached(HttpExchange ex, int code, String contentType, ResponseCache.Body body) throws IOException {
+    byte[] b = body.getBytes();
+    ex.getResponseHeaders().set("Content-Type", contentType);
+    if (body.isCompressible()) {
+      ex.getResponseHeaders().set("Vary", "Accept-Encoding");
+      String accept = ex.getRequestHeaders().getFirst("Accept-Encoding");
+      if (StaticAsset.acceptsGzip(accept)) {
+        b = body.getGzipped();
+        ex.getResponseHeaders().set("Content-Encoding", "gzip");
+        String etag = ex.getResponseHeaders().getFirst("ETag");
+        if (etag != null) {
+          ex.getResponseHeaders().set("ETag", gzipEtag(etag));
+        }
+      }
+    }
     ex.sendResponseHeaders(code, b.length);
     try (OutputStream os = ex.getResponseBody()) {
       os.write(b);
@@ -200,7 +554,7 @@ public class WebServer {
     }
   }
 
-  private String escape(String s) {
+  private static String escape(String s) {
     return s == null ? "" : s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
   }
 }
\ No newline at end of file
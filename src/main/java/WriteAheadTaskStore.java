@@ -0,0 +1,310 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WriteAheadTaskStore appends one compact JSON record per mutation to a log file
+ * and periodically folds the log into the tasks.json snapshot on a background thread
+ *
+ * Files (for a snapshot named tasks.json):
+ *   tasks.json             snapshot, same format as JsonTaskStore
+ *   tasks.json.wal         active log, one TaskMutation per line
+ *   tasks.json.wal.sealed  log being folded by the compactor
+ *   tasks.json.next        new snapshot written by the compactor
+ *
+ * commit() only appends; sync() forces the log to disk. TaskManager calls sync() after
+ * releasing its write lock, so writers that append while an fsync runs are all covered
+ * by the next one instead of each waiting for its own.
+ *
+ * A record cut off by a crash at the end of the log is discarded on load. A bad record
+ * followed by valid ones is corruption, not a torn write: load() fails instead of dropping
+ * the records after it, and a store whose load() failed refuses every commit.
+ *
+ * Compaction commits by deleting the sealed log; the new snapshot is renamed into place
+ * afterwards, and startup recovery finishes that rename if the process died in between.
+ */
+public class WriteAheadTaskStore implements TaskStore {
+    private static final long COMPACT_INTERVAL_SECONDS = 30;
+    private static final long COMPACT_THRESHOLD_BYTES = 256 * 1024;
+
+    private final Gson gson = new GsonBuilder().registerTypeAdapter(Task.class, new TaskTypeAdapter()).create();
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final Path sealedFile;
+    private final Path nextSnapshotFile;
+    private final boolean compactSnapshot;
+
+    // Lock order: syncLock -> appendLock
+    private final Object appendLock = new Object();
+    private final Object syncLock = new Object();
+    private final Object compactLock = new Object();
+
+    private FileChannel log;
+    private long appendedSeq;
+    private long logBytes;
+    private volatile long durableSeq;
+    private ScheduledExecutorService compactor;
+
+    public WriteAheadTaskStore(String snapshotFileName) {
+        this(snapshotFileName, false);
+    }
+
+    /**
+     * @param snapshotFileName The snapshot file; log files are named after it
+     * @param compactSnapshot Write the snapshot without indentation
+     */
+    public WriteAheadTaskStore(String snapshotFileName, boolean compactSnapshot) {
+        this.compactSnapshot = compactSnapshot;
+        this.snapshotFile = Paths.get(snapshotFileName);
+        this.logFile = Paths.get(snapshotFileName + ".wal");
+        this.sealedFile = Paths.get(snapshotFileName + ".wal.sealed");
+        this.nextSnapshotFile = Paths.get(snapshotFileName + ".next");
+    }
+
+    @Override
+    public List<Task> load() throws IOException {
+        recover();
+
+        Map<Long, Task> tasks = readSnapshot();
+        replay(sealedFile, tasks);
+        long validBytes = replay(logFile, tasks);
+
+        FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() > validBytes) {
+                System.err.println("⚠️  Discarding torn write-ahead log tail (" + (channel.size() - validBytes) + " bytes)");
+                channel.truncate(validBytes);
+            }
+            channel.position(validBytes);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        // Only a fully loaded store accepts commits
+        log = channel;
+        logBytes = validBytes;
+
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactQuietly,
+            COMPACT_INTERVAL_SECONDS, COMPACT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        return new ArrayList<>(tasks.values());
+    }
+
+    @Override
+    public void commit(TaskMutation mutation, Collection<Task> tasks) throws IOException {
+        if (log == null) {
+            throw new IOException("Task log " + logFile + " is not open because loading the tasks failed;"
+                + " changes are not saved");
+        }
+        byte[] record = (gson.toJson(mutation) + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (appendLock) {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            logBytes += record.length;
+            appendedSeq++;
+        }
+    }
+
+    @Override
+    public void sync() throws IOException {
+        long seq;
+        synchronized (appendLock) {
+            seq = appendedSeq;
+        }
+        awaitDurable(seq);
+    }
+
+    @Override
+    public String getLocation() {
+        return snapshotFile.getFileName() + " + " + logFile.getFileName();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        if (log == null) {
+            return;
+        }
+        compact(true);
+        synchronized (syncLock) {
+            synchronized (appendLock) {
+                log.force(false);
+                log.close();
+            }
+        }
+    }
+
+    /**
+     * Group commit: one fsync covers every record appended before it started,
+     * so writers that queue up behind an fsync usually return without their own
+     */
+    private void awaitDurable(long seq) throws IOException {
+        synchronized (syncLock) {
+            if (durableSeq >= seq) {
+                return;
+            }
+            long target;
+            synchronized (appendLock) {
+                target = appendedSeq;
+            }
+            forceLog();
+            durableSeq = target;
+        }
+    }
+
+    /**
+     * Forces the active log to disk for a group commit; caller holds syncLock
+     */
+    void forceLog() throws IOException {
+        log.force(false);
+    }
+
+    private void compactQuietly() {
+        try {
+            compact(false);
+        } catch (IOException e) {
+            System.err.println("❌ Error compacting task log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Folds the log into a new snapshot
+     *
+     * @param force Compact even if the log is still below the size threshold
+     */
+    private void compact(boolean force) throws IOException {
+        synchronized (compactLock) {
+            if (!Files.exists(sealedFile)) {
+                synchronized (syncLock) {
+                    synchronized (appendLock) {
+                        if (logBytes == 0 || (!force && logBytes < COMPACT_THRESHOLD_BYTES)) {
+                            return;
+                        }
+                        // Seal the active log and start a fresh one
+                        log.force(false);
+                        log.close();
+                        Files.move(logFile, sealedFile, StandardCopyOption.ATOMIC_MOVE);
+                        log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING);
+                        logBytes = 0;
+                        durableSeq = appendedSeq;
+                    }
+                }
+            }
+
+            Map<Long, Task> tasks = readSnapshot();
+            replay(sealedFile, tasks);
+            JsonTaskStore.writeTasks(nextSnapshotFile.toFile(), tasks.values(), compactSnapshot, true);
+            Files.delete(sealedFile);
+            Files.move(nextSnapshotFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Map<Long, Task> readSnapshot() throws IOException {
+        Map<Long, Task> tasks = new LinkedHashMap<>();
+        for (Task task : JsonTaskStore.readTasks(snapshotFile.toFile())) {
+            tasks.put(task.getId(), task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Finishes or rolls back a compaction interrupted by a crash
+     */
+    private void recover() throws IOException {
+        if (!Files.exists(nextSnapshotFile)) {
+            return;
+        }
+        if (Files.exists(sealedFile)) {
+            // Compaction had not committed: the old snapshot plus sealed log are authoritative
+            Files.delete(nextSnapshotFile);
+        } else {
+            Files.move(nextSnapshotFile, snapshotFile, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Applies every complete record of a log file to the task list
+     *
+     * @return The number of bytes holding complete, parseable records; anything after them is
+     *     a record torn by a crash
+     * @throws IOException If the file cannot be read, or a bad record is followed by valid ones
+     */
+    private long replay(Path file, Map<Long, Task> tasks) throws IOException {
+        File logFile = file.toFile();
+        if (!logFile.exists()) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            TaskMutation mutation = parseRecord(bytes, start, i);
+            if (mutation == null) {
+                if (hasRecordAfter(bytes, i + 1)) {
+                    throw new IOException("Corrupt record at byte " + start + " of " + file
+                        + " is followed by valid records; fix or remove the file to start");
+                }
+                break;
+            }
+            mutation.applyTo(tasks);
+            start = i + 1;
+        }
+        return start;
+    }
+
+    // Parses the line bytes[start, end), or returns null if it is not a valid record
+    private TaskMutation parseRecord(byte[] bytes, int start, int end) {
+        String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        try {
+            TaskMutation mutation = gson.fromJson(line, TaskMutation.class);
+            return mutation == null || mutation.getType() == null ? null : mutation;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private boolean hasRecordAfter(byte[] bytes, int from) {
+        int start = from;
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                if (parseRecord(bytes, start, i) != null) {
+                    return true;
+                }
+                start = i + 1;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,50 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BayesCategorizerTest {
+
+    @Test
+    void learnsWordsFromTrainingTitles() {
+        BayesCategorizer model = BayesCategorizer.train(trainingTasks());
+
+        Categorization work = model.analyze("Prepare the quarterly report");
+        assertEquals("Work", work.getCategory());
+        assertTrue(work.getConfidence() > 0.5, "confidence " + work.getConfidence());
+        assertEquals("Personal", model.analyze("buy GROCERIES").getCategory());
+        // Unknown words leave the known ones to decide
+        assertEquals("Work", model.analyze("zorp quarterly report qlax").getCategory());
+    }
+
+    @Test
+    void titleWithoutKnownWordsIsGeneralWithNoConfidence() {
+        // Personal is the larger class, so its prior alone would win without the check
+        BayesCategorizer model = BayesCategorizer.train(trainingTasks());
+
+        for (String title : new String[] {"zorp qlax vindle", "", "!!! ???"}) {
+            Categorization result = model.analyze(title);
+            assertEquals("General", result.getCategory(), title);
+            assertEquals(0.0, result.getConfidence(), title);
+            assertEquals(AICategorizer.suggestionFor(0.0), result.getSuggestion(), title);
+            for (Category category : Category.values()) {
+                assertEquals(0.0, model.getConfidenceScore(title, category.getDisplayName()), title);
+            }
+        }
+    }
+
+    private static List<Task> trainingTasks() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(new Task("Finish quarterly report " + i, "Work"));
+            tasks.add(new Task("Review project proposal " + i, "Work"));
+            tasks.add(new Task("Buy groceries " + i, "Personal"));
+            tasks.add(new Task("Book dentist visit " + i, "Personal"));
+            tasks.add(new Task("Call mom " + i, "Personal"));
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,161 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void failedWriteBehindKeepsOldFileThenRetries() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        JsonTaskStore store = new JsonTaskStore(file.toString(), false, 20);
+        PersistenceMetrics metrics = new PersistenceMetrics();
+        store.setMetrics(metrics);
+        store.load();
+        store.commit(TaskMutation.added(task(1)), tasks(1));
+        store.whenDurable().get(5, TimeUnit.SECONDS);
+        assertEquals(Collections.singletonList(1L), idsIn(file));
+
+        // The temp file cannot be created, so every write fails before the rename
+        Path temp = Files.createDirectory(dir.resolve("tasks.json.tmp"));
+        store.commit(TaskMutation.added(task(2)), tasks(1, 2));
+        assertThrows(ExecutionException.class, () -> store.whenDurable().get(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(1L), idsIn(file));
+        StringBuilder exported = new StringBuilder();
+        metrics.writePrometheus(exported);
+        assertFalse(exported.toString().contains("todo_store_errors_total{op=\"flush\"} 0\n"));
+
+        // The list stays dirty and the next attempt saves it; one already running may still fail
+        Files.delete(temp);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                store.whenDurable().get(5, TimeUnit.SECONDS);
+                break;
+            } catch (ExecutionException e) {
+                if (attempt == 3) {
+                    throw e;
+                }
+            }
+        }
+        assertEquals(Arrays.asList(1L, 2L), idsIn(file));
+        store.close();
+    }
+
+    @Test
+    void failedCloseKeepsOldFile() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        JsonTaskStore store = new JsonTaskStore(file.toString(), false, 60_000);
+        store.load();
+        store.commit(TaskMutation.added(task(1)), tasks(1));
+        store.close();
+        assertEquals(Collections.singletonList(1L), idsIn(file));
+
+        JsonTaskStore reopened = new JsonTaskStore(file.toString(), false, 60_000);
+        reopened.load();
+        reopened.commit(TaskMutation.added(task(2)), tasks(1, 2));
+        Files.createDirectory(dir.resolve("tasks.json.tmp"));
+        assertThrows(IOException.class, reopened::close);
+        assertEquals(Collections.singletonList(1L), idsIn(file));
+    }
+
+    @Test
+    void closeDuringBackgroundWriteKeepsEveryTask() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        Path temp = dir.resolve("tasks.json.tmp");
+        long[] ids = new long[200_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        JsonTaskStore store = new JsonTaskStore(file.toString(), false, 1);
+        store.load();
+        store.commit(TaskMutation.added(task(1)), tasks(ids));
+
+        // Close while the background write is still going
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Files.exists(temp) && !Files.exists(file) && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        store.close();
+
+        assertEquals(ids.length, JsonTaskStore.readTasks(file.toFile()).size());
+        assertFalse(Files.exists(temp));
+        assertTrue(store.whenDurable().isDone());
+    }
+
+    @Test
+    void closeWritesListWhoseBackgroundWriteFailed() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        Path temp = Files.createDirectory(dir.resolve("tasks.json.tmp"));
+        JsonTaskStore store = new JsonTaskStore(file.toString(), false, 1);
+        store.load();
+        store.commit(TaskMutation.added(task(1)), tasks(1));
+        assertThrows(ExecutionException.class, () -> store.whenDurable().get(5, TimeUnit.SECONDS));
+
+        // The failed list is still pending, so close() saves it once writes work again
+        Files.delete(temp);
+        store.close();
+        assertEquals(Collections.singletonList(1L), idsIn(file));
+    }
+
+    @Test
+    void failedSynchronousCommitKeepsOldFile() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        JsonTaskStore store = new JsonTaskStore(file.toString());
+        store.load();
+        store.commit(TaskMutation.added(task(1)), tasks(1));
+        assertTrue(store.whenDurable().isDone());
+
+        Files.createDirectory(dir.resolve("tasks.json.tmp"));
+        assertThrows(IOException.class, () -> store.commit(TaskMutation.added(task(2)), tasks(1, 2)));
+        assertEquals(Collections.singletonList(1L), idsIn(file));
+    }
+
+    @Test
+    void leftoverTempFileIsIgnoredAndReplaced() throws Exception {
+        Path file = dir.resolve("tasks.json");
+        JsonTaskStore.writeTasks(file.toFile(), tasks(1), false, false);
+        // A crash in the middle of an earlier write
+        Files.write(dir.resolve("tasks.json.tmp"), "[{\"id\":1,\"title\":\"tor".getBytes(StandardCharsets.UTF_8));
+
+        JsonTaskStore store = new JsonTaskStore(file.toString());
+        assertEquals(Collections.singletonList(1L), ids(store.load()));
+        store.commit(TaskMutation.added(task(2)), tasks(1, 2));
+        assertEquals(Arrays.asList(1L, 2L), idsIn(file));
+        assertFalse(Files.exists(dir.resolve("tasks.json.tmp")));
+    }
+
+    private static Task task(long id) {
+        Task task = new Task("task " + id, "Work");
+        task.setId(id);
+        return task;
+    }
+
+    private static List<Task> tasks(long... ids) {
+        return Arrays.stream(ids).mapToObj(JsonTaskStoreTest::task).collect(Collectors.toList());
+    }
+
+    private static List<Long> idsIn(Path file) throws IOException {
+        return ids(JsonTaskStore.readTasks(file.toFile()));
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class KeywordMatcherTest {
+
+    @Test
+    void findsOverlappingAndNestedKeywords() {
+        KeywordMatcher matcher = new KeywordMatcher(
+            Arrays.asList("he", "she", "hers"),
+            Arrays.asList("his", "is"));
+
+        // "ushers" holds "she", "he" and "hers", all ending inside one another
+        KeywordMatcher.Result result = matcher.match("ushers");
+        assertEquals(3, result.getMatchCount(0));
+        assertEquals(0, result.getMatchCount(1));
+
+        // "his" and "is" end on the same character
+        result = matcher.match("this");
+        assertEquals(0, result.getMatchCount(0));
+        assertEquals(2, result.getMatchCount(1));
+        assertEquals(1, result.getFirstMatchedCategory());
+    }
+
+    @Test
+    void matchingIgnoresCase() {
+        KeywordMatcher matcher = new KeywordMatcher(
+            Arrays.asList("ASAP", "Deadline"),
+            Arrays.asList("ñandú"));
+
+        assertEquals(2, matcher.match("asap: DEADLINE moved").getMatchCount(0));
+        assertEquals(1, matcher.match("Feed the ÑANDÚ").getMatchCount(1));
+        assertEquals(-1, matcher.match("nandu").getFirstMatchedCategory());
+    }
+
+    @Test
+    void countsEachKeywordOnce() {
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("call", "all"), Arrays.asList("call"));
+
+        KeywordMatcher.Result result = matcher.match("call call call all");
+        assertEquals(2, result.getMatchCount(0));
+        // The same keyword in another list counts for that list too
+        assertEquals(1, result.getMatchCount(1));
+        assertEquals(0, result.getFirstMatchedCategory());
+    }
+
+    @Test
+    void ignoresEmptyKeywordsAndNullText() {
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("", "x"), Collections.emptyList());
+
+        assertEquals(1, matcher.getKeywordCount());
+        assertEquals(0, matcher.match(null).getMatchCount(0));
+        assertEquals(-1, matcher.match("").getFirstMatchedCategory());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void randomTextMatchesContainsOnLowercasedText() {
+        Random random = new Random(3);
+        String alphabet = "abAB ñÑ";
+        for (int round = 0; round < 200; round++) {
+            List<String>[] categories = new List[3];
+            for (int category = 0; category < categories.length; category++) {
+                categories[category] = Arrays.asList(randomText(random, alphabet, 1, 4),
+                    randomText(random, alphabet, 1, 4), randomText(random, alphabet, 2, 6));
+            }
+            KeywordMatcher matcher = new KeywordMatcher(categories);
+            for (int text = 0; text < 20; text++) {
+                String title = randomText(random, alphabet, 0, 30);
+                KeywordMatcher.Result result = matcher.match(title);
+                for (int category = 0; category < categories.length; category++) {
+                    assertEquals(naiveCount(categories[category], title), result.getMatchCount(category),
+                        categories[category] + " in \"" + title + "\"");
+                }
+            }
+        }
+    }
+
+    // What the keyword categorizer did before the automaton: one contains call per listed keyword
+    private static int naiveCount(List<String> keywords, String title) {
+        String lower = title.toLowerCase();
+        int count = 0;
+        for (String keyword : keywords) {
+            if (lower.contains(keyword.toLowerCase())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String randomText(Random random, String alphabet, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
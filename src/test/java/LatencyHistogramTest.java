@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    private static final long MAX_TRACKED = 1L << 36;
+
+    @Test
+    void everyValueFallsInsideItsBucket() {
+        for (long value = 0; value < 1 << 16; value++) {
+            assertInsideBucket(value);
+        }
+        for (int exponent = 4; exponent < 36; exponent++) {
+            long power = 1L << exponent;
+            assertInsideBucket(power - 1);
+            assertInsideBucket(power);
+            assertInsideBucket(power + 1);
+            assertInsideBucket(power + power / 2);
+        }
+        Random random = new Random(5);
+        for (int i = 0; i < 100_000; i++) {
+            assertInsideBucket((random.nextLong() >>> 1) % MAX_TRACKED);
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousWithBoundedRelativeError() {
+        int last = LatencyHistogram.bucketIndex(Long.MAX_VALUE);
+        // The last bucket ends at 2^36 ns and also takes every longer duration
+        assertEquals(MAX_TRACKED, LatencyHistogram.upperBound(last));
+        assertEquals(last, LatencyHistogram.bucketIndex(MAX_TRACKED - 1));
+        assertEquals(last, LatencyHistogram.bucketIndex(MAX_TRACKED));
+
+        for (int index = 1; index <= last; index++) {
+            long lower = LatencyHistogram.upperBound(index - 1);
+            long upper = LatencyHistogram.upperBound(index);
+            assertEquals(index, LatencyHistogram.bucketIndex(lower), "bucket " + index + " starts at " + lower);
+            assertEquals(index - 1, LatencyHistogram.bucketIndex(lower - 1));
+            if (lower >= 16) {
+                assertTrue((upper - lower) * 16 <= lower, "bucket " + index + ": [" + lower + ", " + upper + ")");
+            }
+        }
+    }
+
+    @Test
+    void negativeDurationsCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getSumNanos());
+        assertEquals(1, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    void percentilesAreWithinOneBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(50));
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        for (double percentile : new double[] {1, 50, 90, 99, 100}) {
+            long exact = (long) Math.ceil(percentile * 10) * 1000;
+            long estimate = histogram.getPercentileNanos(percentile);
+            assertTrue(estimate > exact && estimate <= exact + exact / 16,
+                "p" + percentile + ": " + estimate + " for " + exact);
+        }
+        assertEquals(500_500L * 1000, histogram.getSumNanos());
+    }
+
+    @Test
+    void prometheusBucketsAreCumulativeAtHalfPowersOfTwo() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100); // below the first exported bound
+        histogram.record(5000);
+        histogram.record(7000);
+        histogram.record(1L << 40); // beyond the last tracked bucket
+
+        StringBuilder sb = new StringBuilder();
+        histogram.writePrometheus(sb, "latency_seconds", "route=\"/\"");
+
+        List<Double> bounds = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        for (String line : sb.toString().split("\n")) {
+            if (line.startsWith("latency_seconds_bucket{route=\"/\",le=\"") && !line.contains("+Inf")) {
+                int quote = line.indexOf('"', line.indexOf("le=\"") + 4);
+                bounds.add(Double.parseDouble(line.substring(line.indexOf("le=\"") + 4, quote)));
+                counts.add(Long.parseLong(line.substring(line.lastIndexOf(' ') + 1)));
+            }
+        }
+
+        assertEquals(4096e-9, bounds.get(0), 1e-15);
+        assertEquals(6144e-9, bounds.get(1), 1e-15);
+        assertEquals(8192e-9, bounds.get(2), 1e-15);
+        assertEquals(Math.pow(2, 35) / 1e9, bounds.get(bounds.size() - 1), 1e-9);
+        for (int i = 1; i < bounds.size(); i++) {
+            assertTrue(bounds.get(i) > bounds.get(i - 1));
+            assertTrue(counts.get(i) >= counts.get(i - 1));
+        }
+        assertEquals(1L, counts.get(0));
+        assertEquals(2L, counts.get(1));
+        assertEquals(3L, counts.get(2));
+        assertEquals(3L, counts.get(counts.size() - 1));
+        assertTrue(sb.toString().contains("latency_seconds_bucket{route=\"/\",le=\"+Inf\"} 4\n"));
+        assertTrue(sb.toString().contains("latency_seconds_count{route=\"/\"} 4\n"));
+    }
+
+    private static void assertInsideBucket(long value) {
+        int index = LatencyHistogram.bucketIndex(value);
+        long lower = index == 0 ? 0 : LatencyHistogram.upperBound(index - 1);
+        long upper = LatencyHistogram.upperBound(index);
+        assertTrue(lower <= value && value < upper, value + " in bucket " + index + ": [" + lower + ", " + upper + ")");
+    }
+}
@@ -0,0 +1,169 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs random mutations against TaskColumns and a LinkedHashMap of Task objects side by side;
+ * every view published along the way must keep showing the tasks as they were when it was published
+ */
+class TaskColumnsTest {
+    private static final String[] CATEGORIES = {"Work", "Personal", "Urgent", "General"};
+    private static final String[] WORDS = {"buy", "milk", "meeting", "ñandú", "日本語", "deadline", ""};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void randomMutationsMatchTaskList() {
+        for (long seed = 1; seed <= 20; seed++) {
+            runRandomMutations(new Random(seed));
+        }
+    }
+
+    private void runRandomMutations(Random random) {
+        TaskColumns columns = new TaskColumns();
+        Map<Long, Task> expected = new LinkedHashMap<>();
+        List<TaskColumns.View> views = new ArrayList<>();
+        List<List<String>> viewContents = new ArrayList<>();
+        long nextId = 1;
+
+        for (int step = 0; step < 2000; step++) {
+            int action = random.nextInt(100);
+            if (action < 40 || expected.isEmpty()) {
+                Task task = randomTask(random, nextId++);
+                assertNull(columns.put(task.getId(), new Task(task)));
+                expected.put(task.getId(), task);
+            } else if (action < 70) {
+                Task current = expected.get(randomId(random, expected));
+                Task changed = new Task(current);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        changed.markComplete();
+                        break;
+                    case 1:
+                        changed.markIncomplete();
+                        break;
+                    case 2:
+                        changed.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                        break;
+                    default:
+                        changed.setTitle(randomTitle(random));
+                }
+                assertEquals(fingerprint(current), fingerprint(columns.put(changed.getId(), new Task(changed))));
+                expected.put(changed.getId(), changed);
+            } else if (action < 85) {
+                long id = randomId(random, expected);
+                assertEquals(fingerprint(expected.remove(id)), fingerprint(columns.remove(id)));
+            } else if (action < 90) {
+                String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+                expected.values().removeIf(task -> task.getCategory().equals(category) && task.isCompleted());
+                columns.values().removeIf(task -> task.getCategory().equals(category) && task.isCompleted());
+            } else if (action < 91) {
+                expected.clear();
+                columns.clear();
+            } else {
+                views.add(columns.publish());
+                viewContents.add(fingerprints(expected.values()));
+            }
+
+            assertEquals(expected.size(), columns.size());
+            long probe = 1 + random.nextInt((int) nextId);
+            assertEquals(fingerprint(expected.get(probe)), fingerprint(columns.get(probe)));
+        }
+
+        assertEquals(fingerprints(expected.values()), fingerprints(columns.values()));
+        TaskColumns.View last = columns.publish();
+        for (Task task : expected.values()) {
+            assertEquals(fingerprint(task), fingerprint(last.find(task.getId())));
+        }
+        for (String category : CATEGORIES) {
+            for (Boolean completed : new Boolean[] {null, true, false}) {
+                List<Task> matches = expected.values().stream()
+                    .filter(task -> category.equals(task.getCategory()))
+                    .filter(task -> completed == null || task.isCompleted() == completed)
+                    .collect(Collectors.toList());
+                assertEquals(fingerprints(matches), fingerprints(last.filter(completed, Category.fromName(category))));
+            }
+        }
+        for (int i = 0; i < views.size(); i++) {
+            assertEquals(viewContents.get(i), fingerprints(views.get(i)), "view " + i + " changed after publish");
+        }
+    }
+
+    @Test
+    void readFromBinaryFileMatchesCopiedTasks() throws Exception {
+        Random random = new Random(42);
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 500; id += 1 + random.nextInt(3)) {
+            tasks.add(randomTask(random, id));
+        }
+        Path file = dir.resolve("tasks.bin");
+        BinaryTaskStore.writeTasks(file, tasks);
+
+        TaskColumns read;
+        try (BinaryTaskStore.RecordCursor cursor = BinaryTaskStore.RecordCursor.open(file)) {
+            read = TaskColumns.read(cursor);
+        }
+
+        assertEquals(fingerprints(tasks), fingerprints(read.values()));
+        assertEquals(fingerprints(TaskColumns.of(tasks).values()), fingerprints(read.values()));
+        Task added = randomTask(random, 1000);
+        read.put(added.getId(), added);
+        assertEquals(fingerprint(added), fingerprint(read.get(1000L)));
+    }
+
+    @Test
+    void rejectsDescendingIds() {
+        TaskColumns columns = new TaskColumns();
+        columns.put(5L, randomTask(new Random(1), 5));
+        assertThrows(IllegalArgumentException.class, () -> columns.put(3L, randomTask(new Random(2), 3)));
+    }
+
+    private static Task randomTask(Random random, long id) {
+        Task task = new Task(randomTitle(random), CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        task.setId(id);
+        task.setCreatedAtMillis(random.nextInt(1_000_000));
+        if (random.nextInt(3) == 0) {
+            task.markComplete();
+        }
+        return task;
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder title = new StringBuilder();
+        int words = random.nextInt(random.nextInt(10) == 0 ? 200 : 6);
+        for (int i = 0; i < words; i++) {
+            title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return title.toString();
+    }
+
+    private static long randomId(Random random, Map<Long, Task> tasks) {
+        List<Long> ids = new ArrayList<>(tasks.keySet());
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static List<String> fingerprints(Collection<Task> tasks) {
+        return tasks.stream().map(TaskColumnsTest::fingerprint).collect(Collectors.toList());
+    }
+
+    private static String fingerprint(Task task) {
+        if (task == null) {
+            return null;
+        }
+        return task.getId() + "|" + task.getTitle() + "|" + task.getCategory() + "|" + task.isCompleted()
+            + "|" + task.getCreatedAtMillis() + "|" + task.getCompletedAtMillis();
+    }
+}
@@ -0,0 +1,60 @@
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskEventStreamTest {
+    private TaskEventStream events;
+    private HttpServer server;
+
+    @BeforeEach
+    void start() throws Exception {
+        events = new TaskEventStream();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/events", events::serve);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        events.close();
+        server.stop(0);
+    }
+
+    @Test
+    void changeRightAfterOpenIsDelivered() throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/api/events").openConnection();
+        connection.setReadTimeout(5000);
+        // The response headers are what fires EventSource.onopen in a browser
+        assertEquals(200, connection.getResponseCode());
+
+        Task task = new Task("buy milk", "Personal");
+        task.setId(1);
+        events.taskChanged(TaskMutation.added(task),
+            new TaskSnapshot(2, Collections.singletonList(task), TaskStats.EMPTY));
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null && !line.startsWith("event: ")) {
+                // retry hint and blank lines
+            }
+            assertEquals("event: added", line);
+            String data = reader.readLine();
+            assertTrue(data.startsWith("data: {\"revision\":2,"), data);
+            assertTrue(data.contains("\"title\":\"buy milk\""), data);
+        }
+    }
+}
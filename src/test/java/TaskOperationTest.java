@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskOperationTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parsesEveryKind() {
+        List<TaskOperation> operations = TaskOperation.parseAll("[{\"op\":\"add\",\"title\":\"buy milk\"},"
+            + "{\"op\":\"ADD\",\"title\":\"ship it\",\"category\":\"Work\"},{\"op\":\"complete\",\"id\":3},"
+            + "{\"op\":\"uncomplete\",\"id\":3},{\"op\":\"delete\",\"id\":4},"
+            + "{\"op\":\"recategorize\",\"id\":5,\"category\":\"Urgent\"}]");
+
+        assertEquals(Arrays.asList(TaskOperation.Kind.ADD, TaskOperation.Kind.ADD, TaskOperation.Kind.COMPLETE,
+                TaskOperation.Kind.UNCOMPLETE, TaskOperation.Kind.DELETE, TaskOperation.Kind.RECATEGORIZE),
+            operations.stream().map(TaskOperation::getKind).collect(Collectors.toList()));
+        assertEquals("buy milk", operations.get(0).getTitle());
+        assertNull(operations.get(0).getCategory());
+        assertEquals("Work", operations.get(1).getCategory());
+        assertEquals(4, operations.get(4).getId());
+        assertEquals("Urgent", operations.get(5).getCategory());
+    }
+
+    @Test
+    void rejectsMalformedBatches() {
+        for (String body : new String[] {
+                "{\"op\":\"add\"}", "[1]", "[{\"op\":\"rename\",\"id\":1}]", "[{\"op\":\"delete\"}]",
+                "[{\"op\":\"delete\",\"id\":\"x\"}]", "[{\"op\":\"add\",\"title\":{}}]", "[{\"op\":"}) {
+            assertThrows(IllegalArgumentException.class, () -> TaskOperation.parseAll(body), body);
+        }
+    }
+
+    @Test
+    void batchIsOneCommitAndLaterOperationsSeeEarlierOnes() {
+        String file = dir.resolve("tasks.json").toString();
+        TaskManager manager = new TaskManager(new JsonTaskStore(file));
+        manager.applyOperations(TaskOperation.parseAll("[{\"op\":\"add\",\"title\":\"existing\",\"category\":\"Work\"}]"));
+        List<TaskMutation> mutations = new ArrayList<>();
+        manager.addListener((mutation, snapshot) -> mutations.add(mutation));
+        long revision = manager.getSnapshot().getRevision();
+
+        List<TaskOperation.Result> results = manager.applyOperations(TaskOperation.parseAll("["
+            + "{\"op\":\"add\",\"title\":\"new task\",\"category\":\"Personal\"},"
+            + "{\"op\":\"complete\",\"id\":2},"
+            + "{\"op\":\"complete\",\"id\":2},"
+            + "{\"op\":\"recategorize\",\"id\":1,\"category\":\"Urgent\"},"
+            + "{\"op\":\"recategorize\",\"id\":1,\"category\":\"Nope\"},"
+            + "{\"op\":\"delete\",\"id\":99},"
+            + "{\"op\":\"add\",\"title\":\"  \"},"
+            + "{\"op\":\"delete\",\"id\":1}]"));
+
+        assertEquals(Arrays.asList("OK", "OK", "UNCHANGED", "OK", "INVALID", "NOT_FOUND", "INVALID", "OK"),
+            results.stream().map(result -> result.getStatus().name()).collect(Collectors.toList()));
+        assertTrue(results.get(1).getTask().isCompleted());
+        assertNull(results.get(7).getTask());
+        // Readers and listeners see the batch as one change
+        assertEquals(revision + 1, manager.getSnapshot().getRevision());
+        assertEquals(1, mutations.size());
+        assertEquals(1, manager.getTaskCount());
+        Task left = manager.getTaskById(2);
+        assertEquals("Personal", left.getCategory());
+        assertTrue(left.isCompleted());
+        manager.close();
+
+        TaskManager reopened = new TaskManager(new JsonTaskStore(file));
+        assertEquals(1, reopened.getTaskCount());
+        assertTrue(reopened.getTaskById(2).isCompleted());
+        assertNull(reopened.getTaskById(1));
+        reopened.close();
+    }
+
+    @Test
+    void batchWithoutEffectDoesNotCommit() {
+        TaskManager manager = new TaskManager(new JsonTaskStore(dir.resolve("tasks.json").toString()));
+        long revision = manager.getSnapshot().getRevision();
+
+        List<TaskOperation.Result> results = manager.applyOperations(
+            TaskOperation.parseAll("[{\"op\":\"delete\",\"id\":1},{\"op\":\"add\",\"title\":\"\"}]"));
+
+        assertEquals(TaskOperation.Result.Status.NOT_FOUND, results.get(0).getStatus());
+        assertEquals(TaskOperation.Result.Status.INVALID, results.get(1).getStatus());
+        assertEquals(revision, manager.getSnapshot().getRevision());
+        assertFalse(dir.resolve("tasks.json").toFile().exists());
+        manager.close();
+    }
+}
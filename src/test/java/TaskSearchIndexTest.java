@@ -0,0 +1,164 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares every search against a plain case-insensitive scan of the snapshot
+ */
+class TaskSearchIndexTest {
+    private static final String[] WORDS = {"Buy", "milk", "MEETING", "x", "qz", "ñandú", "ab", "deadline", ""};
+    private static final String[] QUERIES = {
+        "a", "B", "x", "Q", "ñ", "Ú", "ab", "qz", "MI", "k ", " m", "zz",
+        "buy", "MIL", "lk m", "meeting", "ñandú", "dead", "nothing"};
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shortAndLongQueriesMatchScan() {
+        Random random = new Random(7);
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            tasks.add(task(id, randomTitle(random)));
+        }
+        assertSearchesMatchScan(tasks);
+    }
+
+    @Test
+    void commonLetterMatchesScan() {
+        // "e" is under more postings than there are tasks, which takes the scanning path
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            tasks.add(task(id, "see everyene " + id));
+        }
+        tasks.add(task(51, "no match"));
+        assertSearchesMatchScan(tasks);
+    }
+
+    @Test
+    void titlesShorterThanTrigramAreFound() {
+        List<Task> tasks = Arrays.asList(task(1, "A"), task(2, "Ab"), task(3, "b"), task(4, "abc"));
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.addAll(tasks);
+        TaskSnapshot snapshot = new TaskSnapshot(1, tasks, TaskStats.EMPTY);
+
+        assertEquals(Arrays.asList(1L, 2L, 4L), ids(index.search("a", snapshot)));
+        assertEquals(Arrays.asList(2L, 3L, 4L), ids(index.search("B", snapshot)));
+        assertEquals(Arrays.asList(2L, 4L), ids(index.search("ab", snapshot)));
+
+        index.remove(tasks.get(1), 1);
+        assertEquals(Arrays.asList(1L, 4L), ids(index.search("a", snapshot)));
+    }
+
+    @Test
+    void removedTitlesAreNotFound() {
+        Random random = new Random(11);
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            tasks.add(task(id, randomTitle(random)));
+        }
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.addAll(tasks);
+        List<Task> kept = new ArrayList<>();
+        for (Task task : tasks) {
+            if (random.nextBoolean()) {
+                index.remove(task, 1);
+            } else {
+                kept.add(task);
+            }
+        }
+        // Resolve against every task so only the index decides what is found
+        TaskSnapshot snapshot = new TaskSnapshot(1, tasks, TaskStats.EMPTY);
+        for (String query : QUERIES) {
+            assertEquals(ids(scan(kept, query)), ids(index.search(query, snapshot)), query);
+        }
+    }
+
+    @Test
+    void searchMatchesTheReadersSnapshot() {
+        List<Task> before = Arrays.asList(task(1, "buy milk"), task(2, "milk run"));
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.addAll(before);
+        TaskSnapshot old = new TaskSnapshot(1, before, TaskStats.EMPTY);
+
+        // A writer deletes task 1 and adds task 3 while a reader still holds revision 1
+        Task added = task(3, "milk shake");
+        index.add(added);
+        index.remove(before.get(0), 2);
+        TaskSnapshot current = new TaskSnapshot(2, Arrays.asList(before.get(1), added), TaskStats.EMPTY);
+
+        for (String query : new String[] {"milk", "mil", "m", "bu", "buy milk"}) {
+            assertEquals(ids(scan(old.getTasks(), query)), ids(index.search(query, old)), query);
+            assertEquals(ids(scan(current.getTasks(), query)), ids(index.search(query, current)), query);
+        }
+    }
+
+    @Test
+    void managerSnapshotsKeepTheirResults() {
+        TaskManager manager = new TaskManager(new JsonTaskStore(dir.resolve("tasks.json").toString()));
+        manager.applyOperations(Arrays.asList(
+            new TaskOperation(TaskOperation.Kind.ADD, 0, "buy milk", "Personal"),
+            new TaskOperation(TaskOperation.Kind.ADD, 0, "milk run", "Personal")));
+        TaskSnapshot old = manager.getSnapshot();
+        long deleted = old.getTasks().get(0).getId();
+
+        manager.applyOperations(Collections.singletonList(
+            new TaskOperation(TaskOperation.Kind.DELETE, deleted, null, null)));
+        manager.applyOperations(Collections.singletonList(
+            new TaskOperation(TaskOperation.Kind.ADD, 0, "milk shake", "Personal")));
+
+        assertEquals(ids(old.getTasks()), ids(manager.findTasks("milk", old)));
+        assertEquals(ids(manager.getSnapshot().getTasks()), ids(manager.findTasks("milk")));
+        assertEquals(Collections.emptyList(), manager.findTasks("buy"));
+        manager.close();
+    }
+
+    private static void assertSearchesMatchScan(List<Task> tasks) {
+        TaskSearchIndex index = new TaskSearchIndex();
+        index.addAll(tasks);
+        TaskSnapshot snapshot = new TaskSnapshot(1, tasks, TaskStats.EMPTY);
+        for (String query : QUERIES) {
+            assertEquals(ids(scan(tasks, query)), ids(index.search(query, snapshot)), query);
+        }
+        assertEquals(ids(scan(tasks, "e")), ids(index.search("E", snapshot)));
+    }
+
+    private static List<Task> scan(List<Task> tasks, String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        return tasks.stream()
+            .filter(task -> task.getTitle().toLowerCase(Locale.ROOT).contains(needle))
+            .collect(Collectors.toList());
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder title = new StringBuilder();
+        int words = random.nextInt(4);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                title.append(' ');
+            }
+            title.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return title.toString();
+    }
+
+    private static Task task(long id, String title) {
+        Task task = new Task(title, "Work");
+        task.setId(id);
+        return task;
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,191 @@
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * GET /api/tasks over HTTP: cursor pages and ETag revalidation
+ */
+class WebServerTest {
+    private static final int TASKS = 40;
+
+    @TempDir
+    Path dir;
+
+    private TaskManager manager;
+    private WebServer server;
+    private int port;
+
+    @BeforeEach
+    void start() throws IOException {
+        manager = new TaskManager(new JsonTaskStore(dir.resolve("tasks.json").toString()));
+        List<TaskOperation> operations = new ArrayList<>();
+        for (int i = 1; i <= TASKS; i++) {
+            operations.add(new TaskOperation(TaskOperation.Kind.ADD, 0, "task number " + i, "Work"));
+        }
+        for (int id = 3; id <= TASKS; id += 3) {
+            operations.add(new TaskOperation(TaskOperation.Kind.COMPLETE, id, null, null));
+        }
+        manager.applyOperations(operations);
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = new WebServer(manager, port, 0, WebServer.createExecutor(2, 100));
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+        manager.close();
+    }
+
+    @Test
+    void cursorPagesCoverTheWholeList() throws IOException {
+        List<Long> all = ids(get("/api/tasks", Collections.emptyMap()).body);
+        assertEquals(TASKS, all.size());
+
+        assertEquals(all, pageThrough("/api/tasks?limit=7"));
+        assertEquals(expectedCompleted(), pageThrough("/api/tasks?status=completed&limit=4"));
+        // Without limit, a cursor alone gives a page of the default size
+        Response page = get("/api/tasks?cursor=10", Collections.emptyMap());
+        assertEquals(all.subList(10, TASKS), ids(page.body));
+        assertNull(page.connection.getHeaderField("X-Next-Cursor"));
+    }
+
+    @Test
+    void cursorStaysValidWhenItsTaskIsDeleted() throws IOException {
+        Response first = get("/api/tasks?limit=5", Collections.emptyMap());
+        String cursor = first.connection.getHeaderField("X-Next-Cursor");
+        assertEquals("5", cursor);
+
+        manager.applyOperations(Collections.singletonList(
+            new TaskOperation(TaskOperation.Kind.DELETE, 5, null, null)));
+        Response second = get("/api/tasks?limit=5&cursor=" + cursor, Collections.emptyMap());
+        assertEquals(List.of(6L, 7L, 8L, 9L, 10L), ids(second.body));
+    }
+
+    @Test
+    void invalidPageParametersAreRejected() throws IOException {
+        assertEquals(400, get("/api/tasks?limit=0", Collections.emptyMap()).code);
+        assertEquals(400, get("/api/tasks?limit=1001", Collections.emptyMap()).code);
+        assertEquals(400, get("/api/tasks?limit=ten", Collections.emptyMap()).code);
+        assertEquals(400, get("/api/tasks?cursor=x", Collections.emptyMap()).code);
+    }
+
+    @Test
+    void etagRevalidationPerEncoding() throws IOException {
+        Response identity = get("/api/tasks", Collections.emptyMap());
+        String etag = identity.connection.getHeaderField("ETag");
+        assertNull(identity.connection.getHeaderField("Content-Encoding"));
+
+        Response gzip = get("/api/tasks", Map.of("Accept-Encoding", "gzip"));
+        String gzipEtag = gzip.connection.getHeaderField("ETag");
+        assertEquals("gzip", gzip.connection.getHeaderField("Content-Encoding"));
+        assertNotEquals(etag, gzipEtag);
+        assertEquals(identity.body, gzip.body);
+
+        Response notModified = get("/api/tasks", Map.of("If-None-Match", etag));
+        assertEquals(304, notModified.code);
+        assertEquals(etag, notModified.connection.getHeaderField("ETag"));
+        notModified = get("/api/tasks", Map.of("If-None-Match", gzipEtag, "Accept-Encoding", "gzip"));
+        assertEquals(304, notModified.code);
+        assertEquals(gzipEtag, notModified.connection.getHeaderField("ETag"));
+        // The identity body is still current for a client that now accepts gzip
+        assertEquals(304, get("/api/tasks", Map.of("If-None-Match", etag, "Accept-Encoding", "gzip")).code);
+        // A gzip body is not what a client that no longer accepts gzip would get
+        Response refetched = get("/api/tasks", Map.of("If-None-Match", gzipEtag));
+        assertEquals(200, refetched.code);
+        assertEquals(etag, refetched.connection.getHeaderField("ETag"));
+
+        manager.applyOperations(Collections.singletonList(
+            new TaskOperation(TaskOperation.Kind.ADD, 0, "one more", "Work")));
+        Response changed = get("/api/tasks", Map.of("If-None-Match", etag));
+        assertEquals(200, changed.code);
+        assertNotEquals(etag, changed.connection.getHeaderField("ETag"));
+        assertEquals(TASKS + 1, ids(changed.body).size());
+    }
+
+    private List<Long> pageThrough(String path) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        for (int pages = 0; pages <= TASKS; pages++) {
+            Response page = get(cursor == null ? path : path + "&cursor=" + cursor, Collections.emptyMap());
+            assertEquals(200, page.code);
+            ids.addAll(ids(page.body));
+            cursor = page.connection.getHeaderField("X-Next-Cursor");
+            if (cursor == null) {
+                return ids;
+            }
+            assertEquals(ids.get(ids.size() - 1).toString(), cursor);
+        }
+        throw new AssertionError("no last page for " + path);
+    }
+
+    private static List<Long> expectedCompleted() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 3; id <= TASKS; id += 3) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private Response get(String path, Map<String, String> headers) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + path).openConnection();
+        connection.setReadTimeout(5000);
+        headers.forEach(connection::setRequestProperty);
+        int code = connection.getResponseCode();
+        String body = null;
+        if (code == 200) {
+            InputStream in = connection.getInputStream();
+            if ("gzip".equals(connection.getHeaderField("Content-Encoding"))) {
+                in = new GZIPInputStream(in);
+            }
+            try (InputStream stream = in) {
+                body = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+        return new Response(code, connection, body);
+    }
+
+    private static List<Long> ids(String json) {
+        List<Long> ids = new ArrayList<>();
+        for (JsonElement task : JsonParser.parseString(json).getAsJsonArray()) {
+            ids.add(task.getAsJsonObject().get("id").getAsLong());
+        }
+        assertEquals(ids.size(), ids.stream().distinct().count(), json);
+        return ids;
+    }
+
+    private static final class Response {
+        final int code;
+        final HttpURLConnection connection;
+        final String body;
+
+        Response(int code, HttpURLConnection connection, String body) {
+            this.code = code;
+            this.connection = connection;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteAheadTaskStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void concurrentCommitsShareFsyncs() throws Exception {
+        int threads = 8;
+        int tasksPerThread = 10;
+        AtomicInteger fsyncs = new AtomicInteger();
+        String file = dir.resolve("tasks.json").toString();
+        WriteAheadTaskStore store = new WriteAheadTaskStore(file) {
+            @Override
+            void forceLog() throws IOException {
+                fsyncs.incrementAndGet();
+                try {
+                    Thread.sleep(20); // a slow disk, so writers pile up behind each fsync
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.forceLog();
+            }
+        };
+        TaskManager manager = new TaskManager(store);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int writer = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // applyOperations, unlike addTask, prints nothing, so writers spend their time committing
+                for (int i = 0; i < tasksPerThread; i++) {
+                    manager.applyOperations(Collections.singletonList(
+                        new TaskOperation(TaskOperation.Kind.ADD, 0, "task " + writer + "-" + i, "Work")));
+                }
+            });
+            thread.start();
+            writers.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : writers) {
+            thread.join();
+        }
+
+        int commits = threads * tasksPerThread;
+        assertEquals(commits, manager.getTaskCount());
+        // Syncing under the write lock took exactly one fsync per commit
+        assertTrue(fsyncs.get() <= commits * 3 / 4,
+            "expected grouped fsyncs, got " + fsyncs.get() + " for " + commits + " commits");
+        manager.close();
+
+        assertEquals(commits, new WriteAheadTaskStore(file).load().size());
+    }
+
+    @Test
+    void replayDiscardsTornTailAfterCrash() throws Exception {
+        Path snapshot = dir.resolve("tasks.json");
+        Path log = dir.resolve("tasks.json.wal");
+        WriteAheadTaskStore store = new WriteAheadTaskStore(snapshot.toString());
+        store.load();
+        store.commit(TaskMutation.added(task(1, "first")), Collections.emptyList());
+        store.commit(TaskMutation.added(task(2, "second")), Collections.emptyList());
+        store.commit(TaskMutation.completed(completed(task(1, "first"))), Collections.emptyList());
+        store.sync();
+        long validBytes = Files.size(log);
+        // The process dies halfway through writing the next record
+        Files.write(log, "{\"type\":\"ADD\",\"task\":{\"id\":3,\"ti".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        List<Task> recovered = new WriteAheadTaskStore(snapshot.toString()).load();
+
+        assertEquals(Arrays.asList(1L, 2L), ids(recovered));
+        assertTrue(recovered.get(0).isCompleted());
+        assertFalse(recovered.get(1).isCompleted());
+        assertEquals(validBytes, Files.size(log));
+    }
+
+    @Test
+    void corruptRecordInMiddleOfLogFailsLoad() throws Exception {
+        Path snapshot = dir.resolve("tasks.json");
+        Path log = dir.resolve("tasks.json.wal");
+        byte[] first = logOf(task(1, "first"));
+        byte[] third = logOf(task(3, "third"));
+        byte[] corrupt = "{\"type\":\"ADD\",\"task\":{\"id\":2,\"ti\n".getBytes(StandardCharsets.UTF_8);
+        Files.write(log, first);
+        Files.write(log, corrupt, StandardOpenOption.APPEND);
+        Files.write(log, third, StandardOpenOption.APPEND);
+        long size = Files.size(log);
+
+        WriteAheadTaskStore store = new WriteAheadTaskStore(snapshot.toString());
+        assertThrows(IOException.class, store::load);
+
+        // Nothing is truncated, and the store refuses changes instead of failing later
+        assertEquals(size, Files.size(log));
+        assertThrows(IOException.class,
+            () -> store.commit(TaskMutation.added(task(4, "lost")), Collections.emptyList()));
+        store.sync();
+        store.close();
+        assertEquals(size, Files.size(log));
+    }
+
+    @Test
+    void tornTailSpanningSeveralLinesIsDiscarded() throws Exception {
+        Path snapshot = dir.resolve("tasks.json");
+        Path log = dir.resolve("tasks.json.wal");
+        Files.write(log, logOf(task(1, "first")));
+        long validBytes = Files.size(log);
+        Files.write(log, "garbage\n{\"type\":".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(Collections.singletonList(1L), ids(new WriteAheadTaskStore(snapshot.toString()).load()));
+        assertEquals(validBytes, Files.size(log));
+    }
+
+    @Test
+    void failedSnapshotLoadRefusesCommits() throws Exception {
+        Path snapshot = dir.resolve("tasks.json");
+        Files.write(snapshot, "[{\"id\":1,".getBytes(StandardCharsets.UTF_8));
+
+        TaskManager manager = new TaskManager(new WriteAheadTaskStore(snapshot.toString()));
+        // The change is kept in memory and reported as a store error, not thrown
+        manager.applyOperations(Collections.singletonList(new TaskOperation(TaskOperation.Kind.ADD, 0, "new", "Work")));
+
+        assertEquals(1, manager.getTaskCount());
+        StringBuilder metrics = new StringBuilder();
+        manager.getPersistenceMetrics().writePrometheus(metrics);
+        assertTrue(metrics.toString().contains("todo_store_errors_total{op=\"commit_add\"} 1\n"));
+        assertTrue(metrics.toString().contains("todo_store_errors_total{op=\"load\"} 1\n"));
+        manager.close();
+        assertEquals("[{\"id\":1,", new String(Files.readAllBytes(snapshot), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void crashBeforeCompactionCommitKeepsSealedLog() throws Exception {
+        Path snapshot = dir.resolve("tasks.json");
+        JsonTaskStore.writeTasks(snapshot.toFile(), Collections.singletonList(task(1, "in snapshot")), false, false);
+        Files.write(dir.resolve("tasks.json.wal.sealed"), logOf(task(2, "in sealed log")));
+        Files.write(dir.resolve("tasks.json.wal"), logOf(task(3, "in active log")));
+        // A partly written new snapshot: the sealed log was not deleted yet, so it must be ignored
+        JsonTaskStore.writeTasks(dir.resolve("tasks.json.next").toFile(),
+            Collections.singletonList(task(99, "never committed")), false, false);
+
+        List<Task> recovered = new WriteAheadTaskStore(snapshot.toString()).load();
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(recovered));
+        assertFalse(Files.exists(dir.resolve("tasks.json.next")));
+    }
+
+    @Test
+    void crashAfterCompactionCommitInstallsNewSnapshot() throws Exception {
+        Path snapshot = dir.resolve("tasks.json");
+        JsonTaskStore.writeTasks(snapshot.toFile(), Collections.singletonList(task(1, "old snapshot")), false, false);
+        // The sealed log was deleted (the commit point) before the new snapshot was renamed into place
+        JsonTaskStore.writeTasks(dir.resolve("tasks.json.next").toFile(),
+            Arrays.asList(task(1, "old snapshot"), task(2, "folded from sealed log")), false, false);
+        Files.write(dir.resolve("tasks.json.wal"), logOf(task(3, "in active log")));
+
+        List<Task> recovered = new WriteAheadTaskStore(snapshot.toString()).load();
+
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(recovered));
+        assertFalse(Files.exists(dir.resolve("tasks.json.next")));
+        assertEquals(Arrays.asList(1L, 2L), ids(JsonTaskStore.readTasks(snapshot.toFile())));
+    }
+
+    @Test
+    void closeFoldsLogIntoSnapshot() throws Exception {
+        Path snapshot = dir.resolve("tasks.json");
+        WriteAheadTaskStore store = new WriteAheadTaskStore(snapshot.toString());
+        store.load();
+        store.commit(TaskMutation.added(task(1, "first")), Collections.emptyList());
+        store.commit(TaskMutation.deleted(1), Collections.emptyList());
+        store.commit(TaskMutation.added(task(2, "second")), Collections.emptyList());
+        store.close();
+
+        assertEquals(0, Files.size(dir.resolve("tasks.json.wal")));
+        assertFalse(Files.exists(dir.resolve("tasks.json.wal.sealed")));
+        assertEquals(Collections.singletonList(2L), ids(JsonTaskStore.readTasks(snapshot.toFile())));
+        assertEquals(Collections.singletonList(2L), ids(new WriteAheadTaskStore(snapshot.toString()).load()));
+    }
+
+    // The log records a store writes for adding the tasks
+    private byte[] logOf(Task... tasks) throws IOException {
+        Path scratch = Files.createTempDirectory(dir, "log");
+        WriteAheadTaskStore store = new WriteAheadTaskStore(scratch.resolve("tasks.json").toString());
+        store.load();
+        for (Task task : tasks) {
+            store.commit(TaskMutation.added(task), Collections.emptyList());
+        }
+        store.sync();
+        return Files.readAllBytes(scratch.resolve("tasks.json.wal"));
+    }
+
+    private static Task task(long id, String title) {
+        Task task = new Task(title, "Work");
+        task.setId(id);
+        return task;
+    }
+
+    private static Task completed(Task task) {
+        task.markComplete();
+        return task;
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toList());
+    }
+}